@@ -0,0 +1,101 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.OnboardingProgressEvent;
+import com.example.demo.service.OnboardingAnalyticsTopology;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Onboarding analytics (onboarding.analytics.enabled): progress events go to Kafka, a Streams
+// topology aggregates them into local RocksDB stores, and the stores are queried in place
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "onboarding.analytics.enabled", havingValue = "true")
+public class AnalyticsConfig {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsConfig.class);
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${onboarding.kafka.partitions:6}")
+    private int partitions;
+
+    @Value("${onboarding.analytics.application-id:onboarding-analytics}")
+    private String applicationId;
+
+    @Value("${onboarding.analytics.state-dir:${java.io.tmpdir}/onboarding-analytics}")
+    private String stateDir;
+
+    @Value("${onboarding.analytics.retention:7d}")
+    private Duration retention;
+
+    // Same partition count as new-employees so both topics are co-partitioned by employee id
+    @Bean
+    public NewTopic onboardingProgressTopic() {
+        return TopicBuilder.name(KafkaConfig.ONBOARDING_PROGRESS_TOPIC)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public ProducerFactory<String, OnboardingProgressEvent> progressProducerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // Analytics events are plentiful and small; batch them instead of sending each on its own
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 50);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, OnboardingProgressEvent> progressKafkaTemplate() {
+        return new KafkaTemplate<>(progressProducerFactory());
+    }
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration analyticsStreamsConfig() {
+        logger.info("Onboarding analytics {} keeps its state in {}", applicationId, stateDir);
+        Map<String, Object> config = new HashMap<>();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        return new KafkaStreamsConfiguration(config);
+    }
+
+    @Bean
+    public KStream<String, OnboardingProgressEvent> onboardingAnalyticsTopology(StreamsBuilder streamsBuilder) {
+        return OnboardingAnalyticsTopology.build(streamsBuilder, retention);
+    }
+
+    @Bean
+    public KafkaStreamsInteractiveQueryService kafkaStreamsInteractiveQueryService(StreamsBuilderFactoryBean factoryBean) {
+        return new KafkaStreamsInteractiveQueryService(factoryBean);
+    }
+}
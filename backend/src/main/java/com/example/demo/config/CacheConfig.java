@@ -0,0 +1,10 @@
+package com.example.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine caches are configured through spring.cache.* in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -1,18 +1,28 @@
 package com.example.demo.config;
 
 import com.example.demo.entity.Employee;
+import com.example.demo.serialization.EmployeeBinarySerializer;
+import com.example.demo.serialization.EmployeeDeserializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
@@ -23,6 +33,17 @@ import java.util.Map;
 @EnableKafka
 public class KafkaConfig {
     private static final Logger logger = LoggerFactory.getLogger(KafkaConfig.class);
+    public static final String NEW_EMPLOYEES_TOPIC = "new-employees";
+    // Employees whose onboarding still failed after every automatic retry
+    public static final String NEW_EMPLOYEES_DLT = NEW_EMPLOYEES_TOPIC + ".DLT";
+    // Onboarding step and status transitions, keyed by employee id, for the analytics topology
+    public static final String ONBOARDING_PROGRESS_TOPIC = "onboarding-progress";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -30,6 +51,67 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${onboarding.kafka.partitions:6}")
+    private int partitions;
+
+    // One listener thread per partition unless configured otherwise; more threads than partitions sit idle
+    @Value("${onboarding.kafka.listener.concurrency:${onboarding.kafka.partitions:6}}")
+    private int concurrency;
+
+    // Format written by the producer: json or binary (EmployeeBinaryCodec); the consumer reads both
+    @Value("${onboarding.kafka.serialization:json}")
+    private String serialization;
+
+    // Producer batching; defaults match the client's, the kafka-throughput profile raises them
+    @Value("${onboarding.kafka.producer.linger-ms:0}")
+    private int lingerMs;
+
+    @Value("${onboarding.kafka.producer.batch-size:16384}")
+    private int batchSize;
+
+    @Value("${onboarding.kafka.producer.compression-type:none}")
+    private String compressionType;
+
+    @Value("${onboarding.kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value("${onboarding.kafka.producer.acks:all}")
+    private String acks;
+
+    // How long send() may block on metadata or a full buffer before it fails
+    @Value("${onboarding.kafka.producer.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    // Fetch sizing: larger polls feed the batch listener modes, fetch-min-bytes/max-wait trade latency for fewer requests
+    @Value("${onboarding.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${onboarding.kafka.consumer.fetch-min-bytes:1}")
+    private int fetchMinBytes;
+
+    @Value("${onboarding.kafka.consumer.fetch-max-wait-ms:500}")
+    private int fetchMaxWaitMs;
+
+    @Value("${onboarding.kafka.consumer.max-partition-fetch-bytes:1048576}")
+    private int maxPartitionFetchBytes;
+
+    @Bean
+    public NewTopic newEmployeesTopic() {
+        logger.info("Declaring topic {} with {} partitions", NEW_EMPLOYEES_TOPIC, partitions);
+        return TopicBuilder.name(NEW_EMPLOYEES_TOPIC)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic newEmployeesDeadLetterTopic() {
+        return TopicBuilder.name(NEW_EMPLOYEES_DLT)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public ProducerFactory<String, Employee> producerFactory() {
         logger.info("Configuring Kafka with bootstrap servers: {}", bootstrapServers);
@@ -37,10 +119,21 @@ public class KafkaConfig {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+                "binary".equals(serialization) ? EmployeeBinarySerializer.class : JsonSerializer.class);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        // Idempotence requires acks=all; it keeps broker-side retries from duplicating or reordering records
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        config.put(ProducerConfig.ACKS_CONFIG, acks);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
         
         logger.info("Producer configuration: {}", config);
-        return new DefaultKafkaProducerFactory<>(config);
+        DefaultKafkaProducerFactory<String, Employee> factory = new DefaultKafkaProducerFactory<>(config);
+        // Client metrics (record send rate, batch size, request latency) as kafka.producer.*
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -52,13 +145,21 @@ public class KafkaConfig {
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, EmployeeDeserializer.class);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, maxPartitionFetchBytes);
         
         logger.info("Consumer configuration: {}", config);
-        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
-                new JsonDeserializer<>(Employee.class, false));
+        // A record that cannot be deserialized is handed over as null instead of failing the whole poll
+        DefaultKafkaConsumerFactory<String, Employee> factory = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new EmployeeDeserializer()));
+        // Client metrics as kafka.consumer.*, including consumer lag (fetch.manager.records.lag.max)
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -66,9 +167,32 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Employee> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        applyThreading(factory);
+        return factory;
+    }
+
+    // Hands each poll to the listener as a list, for listeners that process records together
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Employee> kafkaBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Employee> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        applyThreading(factory);
         return factory;
     }
 
+    // With spring.threads.virtual.enabled on Java 21+, listener consumers run on virtual threads
+    private void applyThreading(ConcurrentKafkaListenerContainerFactory<String, Employee> factory) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
+
     @Bean
     public KafkaTemplate<String, Employee> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import com.example.demo.service.EmployeeEventPublisher;
+import com.example.demo.service.OnboardingRetryScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Exposes the counters the publisher and retry scheduler already keep; onboarding timers live in OnboardingMetrics
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder employeeEventMetrics(EmployeeEventPublisher publisher) {
+        return registry -> {
+            FunctionCounter.builder("employee.events.published", publisher, EmployeeEventPublisher::getPublished)
+                    .description("Employee events acknowledged by Kafka")
+                    .register(registry);
+            FunctionCounter.builder("employee.events.failed", publisher, EmployeeEventPublisher::getFailed)
+                    .description("Employee event sends that failed; the outbox sends them again")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder onboardingRetryMetrics(OnboardingRetryScheduler retryScheduler) {
+        return registry -> {
+            Gauge.builder("onboarding.retry.scheduled", retryScheduler, OnboardingRetryScheduler::getScheduledCount)
+                    .description("Failed onboardings waiting for their next retry")
+                    .register(registry);
+            FunctionCounter.builder("onboarding.retry.attempts", retryScheduler, OnboardingRetryScheduler::getRetried)
+                    .description("Onboarding retries run")
+                    .register(registry);
+            FunctionCounter.builder("onboarding.retry.dead.lettered", retryScheduler,
+                            OnboardingRetryScheduler::getDeadLettered)
+                    .description("Onboardings sent to new-employees.DLT after the last retry")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.config;
+
+import com.example.demo.service.IdGenerator;
+import com.example.demo.service.RandomStepSimulation;
+import com.example.demo.service.SnowflakeIdGenerator;
+import com.example.demo.service.SnowflakeNodeLease;
+import com.example.demo.service.StepSimulation;
+import com.example.demo.service.UuidIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class OnboardingConfig {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingConfig.class);
+
+    @Value("${onboarding.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${onboarding.executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Steps in flight at once with virtual threads; keep it near the JDBC pool size so steps wait here, not on connections
+    @Value("${onboarding.executor.virtual-concurrency-limit:64}")
+    private int virtualConcurrencyLimit;
+
+    // Bounded pool for onboarding steps; when the queue is full the submitting thread runs the step itself
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor onboardingExecutor() {
+        logger.info("Creating onboarding executor with {} threads and queue capacity {}", poolSize, queueCapacity);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("onboarding-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // spring.threads.virtual.enabled on Java 21+: one virtual thread per step, throttled instead of pooled
+    @Bean(name = "onboardingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualOnboardingExecutor() {
+        logger.info("Creating virtual-thread onboarding executor limited to {} concurrent steps", virtualConcurrencyLimit);
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("onboarding-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(virtualConcurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    // snowflake (default): time-ordered and unique per node id, leased by SnowflakeNodeLease; uuid: the
+    // original 8 random hex digits
+    @Bean
+    public IdGenerator idGenerator(@Value("${onboarding.ids.generator:snowflake}") String generator,
+                                   ObjectProvider<SnowflakeNodeLease> nodeLease) {
+        if ("uuid".equals(generator)) {
+            return new UuidIdGenerator();
+        }
+        if (!"snowflake".equals(generator)) {
+            throw new IllegalStateException("Unknown onboarding.ids.generator: " + generator);
+        }
+        SnowflakeIdGenerator ids = nodeLease.getObject().generator();
+        logger.info("Generating onboarding IDs as snowflakes for node {}", ids.getNodeId());
+        return ids;
+    }
+
+    // random (default): fixed latency and failure rate per downstream call; none: every call succeeds at once
+    @Bean
+    public StepSimulation stepSimulation(@Value("${onboarding.simulation.provider:random}") String provider,
+                                         @Value("${onboarding.simulation.failure-rate:0.1}") double failureRate,
+                                         @Value("${onboarding.simulation.step-latency:0ms}") Duration stepLatency) {
+        if ("none".equals(provider)) {
+            return StepSimulation.NONE;
+        }
+        if (!"random".equals(provider)) {
+            throw new IllegalStateException("Unknown onboarding.simulation.provider: " + provider);
+        }
+        return new RandomStepSimulation(failureRate, stepLatency);
+    }
+}
@@ -1,17 +1,36 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BulkIngestResponse;
+import com.example.demo.dto.EmployeePage;
+import com.example.demo.dto.EmployeePatch;
+import com.example.demo.dto.OnboardingDetailsDTO;
+import com.example.demo.dto.OnboardingFailureDTO;
 import com.example.demo.entity.Employee;
+import com.example.demo.entity.OnboardingStep;
 import com.example.demo.repository.EmployeeRepository;
-import com.example.demo.service.OnboardingService;
+import com.example.demo.service.EmployeeIngestionService;
+import com.example.demo.service.EmployeeLookupService;
+import com.example.demo.service.EmployeeQueryService;
+import com.example.demo.service.EmployeeUpdateService;
+import com.example.demo.service.OnboardingProgressBroadcaster;
+import com.example.demo.service.OnboardingRetryScheduler;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/employees")
@@ -24,60 +43,115 @@ public class EmployeeController {
     private EmployeeRepository repository; // Connects to the database
 
     @Autowired
-    private KafkaTemplate<String, Employee> kafkaTemplate; // Sends messages to Kafka
+    private EmployeeIngestionService ingestionService; // Saves employees together with their outbox events
 
     @Autowired
-    private OnboardingService onboardingService; // Service for onboarding functionality
+    private EmployeeQueryService queryService; // Keyset paging and streaming export
 
-    private static final String TOPIC = "new-employees";
+    @Autowired
+    private EmployeeUpdateService updateService; // Writes only the columns a PUT or PATCH changed
+
+    @Autowired
+    private EmployeeLookupService lookupService; // Cached single-employee lookups for the dashboard
+
+    @Autowired
+    private OnboardingProgressBroadcaster progressBroadcaster; // Pushes onboarding progress to subscribers
+
+    @Autowired
+    private OnboardingRetryScheduler retryScheduler; // Retries failed onboardings off the request thread
+
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     // CREATE: Adding of a new employee
     @PostMapping
     public Employee addEmployee(@RequestBody Employee employee) {
         try {
-            Employee savedEmployee = repository.save(employee); // Save to database
-            kafkaTemplate.send(TOPIC, savedEmployee); // Notify other systems
-            return savedEmployee;
+            // Saved with its outbox event in one transaction; OutboxRelay notifies other systems
+            return ingestionService.create(employee);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTaken(employee.getEmail());
         } catch (Exception e) {
             throw new RuntimeException("Failed to add employee: " + e.getMessage());
         }
     }
 
-    // READ: Get all employees
+    // CREATE: Bulk ingestion of a JSON array of employees
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkIngestResponse addEmployees(@RequestBody List<Employee> employees) {
+        return ingestionService.ingest(employees);
+    }
+
+    // CREATE: Bulk ingestion of newline-delimited JSON, streamed from the request body
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkIngestResponse addEmployeesNdjson(HttpServletRequest request) throws IOException {
+        return ingestionService.ingestNdjson(request.getInputStream());
+    }
+
+    // READ: Get a page of employees, optionally filtered by onboarding status
+    // The id to pass as "after" for the next page is returned in the X-Next-Cursor header
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return repository.findAll();
+    public ResponseEntity<List<?>> getAllEmployees(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "full") String view) {
+        EmployeePage<?> page = queryService.findPage(after, limit, status, "summary".equalsIgnoreCase(view));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // READ: Stream every employee as newline-delimited JSON without loading the table into memory
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportEmployees(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "full") String view) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        return output -> queryService.export(output, status, summary);
     }
 
     // READ: Get a single employee by ID
     @GetMapping("/{id}")
     public Employee getEmployeeById(@PathVariable Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        Employee employee = lookupService.findEmployee(id);
+        if (employee == null) {
+            throw new RuntimeException("Employee not found with id: " + id);
+        }
+        return employee;
     }
 
     // UPDATE: Update an existing employee
     @PutMapping("/{id}")
     public Employee updateEmployee(@PathVariable Long id, @RequestBody Employee updatedEmployee) {
-        return repository.findById(id)
-                .map(existingEmployee -> {
-                    // Update basic info
-                    existingEmployee.setName(updatedEmployee.getName());
-                    existingEmployee.setEmail(updatedEmployee.getEmail());
-                    
-                    // Update onboarding status and related fields
-                    existingEmployee.setOnboardingStatus(updatedEmployee.getOnboardingStatus());
-                    existingEmployee.setOnboardingCompletedAt(updatedEmployee.getOnboardingCompletedAt());
-                    
-                    // Update equipment and access
-                    existingEmployee.setAccountId(updatedEmployee.getAccountId());
-                    existingEmployee.setLaptopSerialNumber(updatedEmployee.getLaptopSerialNumber());
-                    existingEmployee.setStaffPassId(updatedEmployee.getStaffPassId());
-                    existingEmployee.setWelcomePackIssued(updatedEmployee.isWelcomePackIssued());
-                    
-                    return repository.save(existingEmployee);
-                })
-                .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
+        Employee saved;
+        try {
+            saved = updateService.replace(id, updatedEmployee);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTaken(updatedEmployee.getEmail());
+        }
+        if (saved == null) {
+            throw new RuntimeException("Employee not found with id: " + id);
+        }
+        return saved;
+    }
+
+    // UPDATE: Change only the fields present in the request body
+    @PatchMapping("/{id}")
+    public ResponseEntity<Employee> patchEmployee(@PathVariable Long id, @RequestBody EmployeePatch patch) {
+        Employee saved;
+        try {
+            saved = updateService.patch(id, patch);
+        } catch (DataIntegrityViolationException e) {
+            throw emailTaken(patch.getEmail());
+        }
+        return saved == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(saved);
+    }
+
+    // Emails are unique (uk_employee_email)
+    private static ResponseStatusException emailTaken(String email) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "An employee with email " + email + " already exists");
     }
 
     // DELETE: Delete an employee
@@ -85,6 +159,7 @@ public class EmployeeController {
     public String deleteEmployee(@PathVariable Long id) {
         if (repository.existsById(id)) {
             repository.deleteById(id);
+            lookupService.evict(id);
             return "Employee with id " + id + " has been deleted.";
         } else {
             throw new RuntimeException("Employee not found with id: " + id);
@@ -95,21 +170,12 @@ public class EmployeeController {
     @GetMapping("/{id}/onboarding")
     public ResponseEntity<?> getOnboardingDetails(@PathVariable Long id) {
         try {
-            Employee employee = onboardingService.getEmployeeById(id);
-            if (employee == null) {
+            // Only the onboarding-related fields, served from the cache while onboarding is polled
+            OnboardingDetailsDTO onboardingDetails = lookupService.findOnboardingDetails(id);
+            if (onboardingDetails == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            // Create a DTO with only the onboarding-related fields
-            var onboardingDetails = new OnboardingDetailsDTO(
-                    employee.getOnboardingStatus(),
-                    employee.getOnboardingCompletedAt(),
-                    employee.getAccountId(),
-                    employee.getLaptopSerialNumber(),
-                    employee.getStaffPassId(),
-                    employee.isWelcomePackIssued()
-            );
-
             return ResponseEntity.ok(onboardingDetails);
         } catch (Exception e) {
             logger.error("Error fetching onboarding details for employee {}: {}", id, e.getMessage());
@@ -117,53 +183,56 @@ public class EmployeeController {
         }
     }
 
-    // Onboarding: Retry onboarding for an employee
-    @PostMapping("/{id}/onboarding/retry")
-    public ResponseEntity<?> retryOnboarding(@PathVariable Long id) {
-        try {
-            Employee employee = onboardingService.getEmployeeById(id);
-            if (employee == null) {
-                return ResponseEntity.notFound().build();
-            }
+    // Onboarding: Stream step and status transitions as Server-Sent Events instead of polling
+    // Repeat employeeId or status to follow several; without them every transition is sent
+    @GetMapping(value = "/onboarding/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOnboardingProgress(
+            @RequestParam(name = "employeeId", required = false) Set<Long> employeeIds,
+            @RequestParam(name = "status", required = false) Set<String> statuses) {
+        return progressBroadcaster.subscribe(
+                employeeIds != null ? employeeIds : Set.of(),
+                statuses != null ? statuses : Set.of());
+    }
 
-            onboardingService.startOnboarding(employee);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            logger.error("Error retrying onboarding for employee {}: {}", id, e.getMessage());
-            return ResponseEntity.internalServerError().body("Error retrying onboarding");
+    // Onboarding: Get the state of every onboarding step for an employee
+    @GetMapping("/{id}/onboarding/steps")
+    public ResponseEntity<List<OnboardingStep>> getOnboardingSteps(@PathVariable Long id) {
+        if (!repository.existsById(id)) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(queryService.findSteps(id));
     }
 
-    // DTO class for onboarding details
-    private static class OnboardingDetailsDTO {
-        private String status;
-        private LocalDateTime completedAt;
-        private String accountId;
-        private String laptopSerialNumber;
-        private String staffPassId;
-        private boolean welcomePackIssued;
-
-        public OnboardingDetailsDTO(
-                String status,
-                LocalDateTime completedAt,
-                String accountId,
-                String laptopSerialNumber,
-                String staffPassId,
-                boolean welcomePackIssued) {
-            this.status = status;
-            this.completedAt = completedAt;
-            this.accountId = accountId;
-            this.laptopSerialNumber = laptopSerialNumber;
-            this.staffPassId = staffPassId;
-            this.welcomePackIssued = welcomePackIssued;
+    // Onboarding: Page through failed onboardings with the steps that failed
+    // The id to pass as "after" for the next page is returned in the X-Next-Cursor header
+    @GetMapping("/onboarding/failures")
+    public ResponseEntity<List<OnboardingFailureDTO>> getOnboardingFailures(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        EmployeePage<OnboardingFailureDTO> page =
+                queryService.findFailures(after, limit, retryScheduler::isRetryScheduled);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
         }
+        return response.body(page.getItems());
+    }
+
+    // Onboarding: Retry the given failed onboardings, or all of them without a body, in batches
+    @PostMapping("/onboarding/failures/retry")
+    public ResponseEntity<Map<String, Object>> retryOnboardingFailures(@RequestBody(required = false) List<Long> ids) {
+        retryScheduler.retryFailed(ids != null ? ids : List.of());
+        return ResponseEntity.accepted().body(Map.of("accepted", ids == null || ids.isEmpty() ? "all" : ids.size()));
+    }
 
-        // Getters
-        public String getStatus() { return status; }
-        public LocalDateTime getCompletedAt() { return completedAt; }
-        public String getAccountId() { return accountId; }
-        public String getLaptopSerialNumber() { return laptopSerialNumber; }
-        public String getStaffPassId() { return staffPassId; }
-        public boolean isWelcomePackIssued() { return welcomePackIssued; }
+    // Onboarding: Retry onboarding for an employee
+    // Runs on the retry scheduler; progress is reported on the onboarding stream
+    @PostMapping("/{id}/onboarding/retry")
+    public ResponseEntity<?> retryOnboarding(@PathVariable Long id) {
+        if (!repository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        retryScheduler.retryNow(id);
+        return ResponseEntity.accepted().build();
     }
 }
@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.repository.LaptopInventoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/laptops")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"}, allowCredentials = "true")
+public class LaptopInventoryController {
+
+    @Autowired
+    private LaptopInventoryRepository repository; // Laptop stock the onboarding allocator draws from
+
+    // CREATE: Add laptops to the inventory by serial number
+    @PostMapping
+    public Map<String, Integer> addLaptops(@RequestBody List<String> serialNumbers) {
+        List<LaptopInventory> laptops = serialNumbers.stream()
+                .filter(serial -> !repository.existsById(serial))
+                .map(LaptopInventory::new)
+                .toList();
+        repository.saveAll(laptops);
+        return Map.of("added", laptops.size());
+    }
+
+    // READ: Number of laptops still available for onboarding
+    @GetMapping("/available")
+    public Map<String, Long> getAvailableCount() {
+        return Map.of("available", repository.countByAssignedFalse());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.HourlyOnboardingStats;
+import com.example.demo.service.OnboardingAnalyticsService;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/employees/onboarding/analytics")
+@CrossOrigin(origins = {"http://localhost:5173", "http://127.0.0.1:5173"}, allowCredentials = "true")
+@ConditionalOnProperty(name = "onboarding.analytics.enabled", havingValue = "true")
+public class OnboardingAnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingAnalyticsController.class);
+
+    @Autowired
+    private OnboardingAnalyticsService analyticsService; // Aggregates served from the Streams state stores
+
+    // READ: Employees per current onboarding status
+    @GetMapping("/status-counts")
+    public ResponseEntity<Map<String, Long>> getStatusCounts() {
+        return query(analyticsService::getStatusCounts);
+    }
+
+    // READ: Employees added and onboarding runs completed or failed per hour, oldest first
+    @GetMapping("/hourly")
+    public ResponseEntity<List<HourlyOnboardingStats>> getHourlyStats(@RequestParam(defaultValue = "24") int hours) {
+        return query(() -> analyticsService.getHourlyStats(hours));
+    }
+
+    // READ: Failures per onboarding step over the last hours
+    @GetMapping("/step-failures")
+    public ResponseEntity<Map<String, Long>> getStepFailures(@RequestParam(defaultValue = "24") int hours) {
+        return query(() -> analyticsService.getStepFailures(hours));
+    }
+
+    // The stores cannot be queried while Streams starts up or rebalances; ask the client to come back
+    private static <T> ResponseEntity<T> query(Supplier<T> read) {
+        try {
+            return ResponseEntity.ok(read.get());
+        } catch (InvalidStateStoreException | IllegalStateException e) {
+            logger.warn("Onboarding analytics not available: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+    }
+}
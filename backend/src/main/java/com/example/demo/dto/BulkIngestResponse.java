@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// Summary plus per-row results of a bulk ingestion request
+public class BulkIngestResponse {
+    private final int received;
+    private final int created;
+    private final int failed;
+    private final List<BulkIngestResult> results;
+
+    public BulkIngestResponse(List<BulkIngestResult> results) {
+        this.results = results;
+        this.received = results.size();
+        this.created = (int) results.stream()
+                .filter(result -> BulkIngestResult.CREATED.equals(result.getStatus()))
+                .count();
+        this.failed = received - created;
+    }
+
+    public int getReceived() { return received; }
+    public int getCreated() { return created; }
+    public int getFailed() { return failed; }
+    public List<BulkIngestResult> getResults() { return results; }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+// One keyset page of employees; nextCursor is the id to pass as "after" for the next page
+public class EmployeePage<T> {
+    private final List<T> items;
+    private final Long nextCursor;
+
+    public EmployeePage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public Long getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Body of PATCH /employees/{id}: only the fields present (non-null) are changed
+public class EmployeePatch {
+    private String name;
+    private String email;
+    private String onboardingStatus;
+    private LocalDateTime onboardingCompletedAt;
+    private String accountId;
+    private String laptopSerialNumber;
+    private String staffPassId;
+    private Boolean welcomePackIssued;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getOnboardingStatus() { return onboardingStatus; }
+    public void setOnboardingStatus(String onboardingStatus) { this.onboardingStatus = onboardingStatus; }
+
+    public LocalDateTime getOnboardingCompletedAt() { return onboardingCompletedAt; }
+    public void setOnboardingCompletedAt(LocalDateTime onboardingCompletedAt) {
+        this.onboardingCompletedAt = onboardingCompletedAt;
+    }
+
+    public String getAccountId() { return accountId; }
+    public void setAccountId(String accountId) { this.accountId = accountId; }
+
+    public String getLaptopSerialNumber() { return laptopSerialNumber; }
+    public void setLaptopSerialNumber(String laptopSerialNumber) { this.laptopSerialNumber = laptopSerialNumber; }
+
+    public String getStaffPassId() { return staffPassId; }
+    public void setStaffPassId(String staffPassId) { this.staffPassId = staffPassId; }
+
+    public Boolean getWelcomePackIssued() { return welcomePackIssued; }
+    public void setWelcomePackIssued(Boolean welcomePackIssued) { this.welcomePackIssued = welcomePackIssued; }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+// Lightweight projection of Employee without the onboarding columns
+public class EmployeeSummary {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String onboardingStatus;
+
+    public EmployeeSummary(Long id, String name, String email, String onboardingStatus) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.onboardingStatus = onboardingStatus;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getOnboardingStatus() { return onboardingStatus; }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Onboarding throughput for one hour; completionRate is completed runs over finished runs, null when none finished
+public class HourlyOnboardingStats {
+    private final LocalDateTime hourStart;
+    private final long added;
+    private final long completed;
+    private final long failed;
+
+    public HourlyOnboardingStats(LocalDateTime hourStart, long added, long completed, long failed) {
+        this.hourStart = hourStart;
+        this.added = added;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    public LocalDateTime getHourStart() { return hourStart; }
+    public long getAdded() { return added; }
+    public long getCompleted() { return completed; }
+    public long getFailed() { return failed; }
+
+    public Double getCompletionRate() {
+        long finished = completed + failed;
+        return finished == 0 ? null : (double) completed / finished;
+    }
+}
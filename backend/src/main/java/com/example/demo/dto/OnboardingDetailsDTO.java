@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Employee;
+
+import java.time.LocalDateTime;
+
+// Onboarding-related fields of an employee, as returned by GET /employees/{id}/onboarding
+public class OnboardingDetailsDTO {
+    private final String status;
+    private final LocalDateTime completedAt;
+    private final String accountId;
+    private final String laptopSerialNumber;
+    private final String staffPassId;
+    private final boolean welcomePackIssued;
+
+    public OnboardingDetailsDTO(
+            String status,
+            LocalDateTime completedAt,
+            String accountId,
+            String laptopSerialNumber,
+            String staffPassId,
+            boolean welcomePackIssued) {
+        this.status = status;
+        this.completedAt = completedAt;
+        this.accountId = accountId;
+        this.laptopSerialNumber = laptopSerialNumber;
+        this.staffPassId = staffPassId;
+        this.welcomePackIssued = welcomePackIssued;
+    }
+
+    public static OnboardingDetailsDTO from(Employee employee) {
+        return new OnboardingDetailsDTO(
+                employee.getOnboardingStatus(),
+                employee.getOnboardingCompletedAt(),
+                employee.getAccountId(),
+                employee.getLaptopSerialNumber(),
+                employee.getStaffPassId(),
+                employee.isWelcomePackIssued());
+    }
+
+    // Getters
+    public String getStatus() { return status; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public String getAccountId() { return accountId; }
+    public String getLaptopSerialNumber() { return laptopSerialNumber; }
+    public String getStaffPassId() { return staffPassId; }
+    public boolean isWelcomePackIssued() { return welcomePackIssued; }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.OnboardingStep;
+
+import java.util.List;
+
+// A failed onboarding as listed on the failures dashboard, with the steps that failed and why
+public class OnboardingFailureDTO {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final boolean retryScheduled;
+    private final List<OnboardingStep> failedSteps;
+
+    public OnboardingFailureDTO(EmployeeSummary employee, boolean retryScheduled, List<OnboardingStep> failedSteps) {
+        this.id = employee.getId();
+        this.name = employee.getName();
+        this.email = employee.getEmail();
+        this.retryScheduled = retryScheduled;
+        this.failedSteps = failedSteps;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public boolean isRetryScheduled() { return retryScheduled; }
+    public List<OnboardingStep> getFailedSteps() { return failedSteps; }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * One onboarding transition as streamed to progress subscribers: a step that started, completed
+ * or failed, or (with no step) the employee's overall onboarding status after it was saved.
+ */
+public class OnboardingProgressEvent {
+    private final Long employeeId;
+    private final String step; // OnboardingTask name, null for the overall status
+    private final String status; // IN_PROGRESS, COMPLETED, FAILED
+    private final String detail; // Step result or error message
+    private final LocalDateTime timestamp;
+
+    public OnboardingProgressEvent(Long employeeId, String step, String status, String detail) {
+        this(employeeId, step, status, detail, LocalDateTime.now());
+    }
+
+    // Read back from the onboarding-progress topic
+    @JsonCreator
+    public OnboardingProgressEvent(@JsonProperty("employeeId") Long employeeId,
+                                   @JsonProperty("step") String step,
+                                   @JsonProperty("status") String status,
+                                   @JsonProperty("detail") String detail,
+                                   @JsonProperty("timestamp") LocalDateTime timestamp) {
+        this.employeeId = employeeId;
+        this.step = step;
+        this.status = status;
+        this.detail = detail;
+        this.timestamp = timestamp;
+    }
+
+    public static OnboardingProgressEvent overall(Long employeeId, String status) {
+        return new OnboardingProgressEvent(employeeId, null, status, null);
+    }
+
+    public Long getEmployeeId() { return employeeId; }
+    public String getStep() { return step; }
+    public String getStatus() { return status; }
+    public String getDetail() { return detail; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
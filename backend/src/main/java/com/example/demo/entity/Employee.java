@@ -4,13 +4,25 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
+// Schema is managed by the Flyway migrations in db/migration; keep the indexes here in step with them.
+// Updates write only the columns that changed.
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_employee_status_id", columnList = "onboardingStatus, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_employee_email", columnNames = "email"))
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (a table on MySQL) so Hibernate can batch inserts; IDENTITY disables JDBC batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String email;
@@ -23,6 +35,12 @@ public class Employee {
     private LocalDateTime onboardingCompletedAt;
     private String onboardingStatus; // PENDING, IN_PROGRESS, COMPLETED, FAILED
 
+    // Node whose onboarding run holds the employee and when it claimed it; written by the claim
+    // queries only, so not part of the API or the Kafka payload
+    @Column(length = 64)
+    private String onboardingClaim;
+    private LocalDateTime onboardingClaimedAt;
+
     // Default constructor
     public Employee() {
     }
@@ -36,6 +54,7 @@ public class Employee {
 
     // Getters and setters
     public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
 
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -3,8 +3,16 @@ package com.example.demo.entity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_laptop_assigned_employee", columnList = "assignedEmployeeId"),
+        @Index(name = "idx_laptop_available", columnList = "assigned, reservedBy, serialNumber")
+})
 public class LaptopInventory {
     @Id
     private String serialNumber;
@@ -12,6 +20,14 @@ public class LaptopInventory {
     @Column(nullable = false)
     private boolean assigned;
 
+    private Long assignedEmployeeId;
+
+    // Node that has claimed this laptop into its in-memory block of serials
+    private String reservedBy;
+
+    // When reservedBy claimed it; reservations older than onboarding.laptop.reservation-ttl are claimed again
+    private LocalDateTime reservedAt;
+
     public LaptopInventory() {}
 
     public LaptopInventory(String serialNumber) {
@@ -24,4 +40,13 @@ public class LaptopInventory {
 
     public boolean isAssigned() { return assigned; }
     public void setAssigned(boolean assigned) { this.assigned = assigned; }
-}
\ No newline at end of file
+
+    public Long getAssignedEmployeeId() { return assignedEmployeeId; }
+    public void setAssignedEmployeeId(Long assignedEmployeeId) { this.assignedEmployeeId = assignedEmployeeId; }
+
+    public String getReservedBy() { return reservedBy; }
+    public void setReservedBy(String reservedBy) { this.reservedBy = reservedBy; }
+
+    public LocalDateTime getReservedAt() { return reservedAt; }
+    public void setReservedAt(LocalDateTime reservedAt) { this.reservedAt = reservedAt; }
+}
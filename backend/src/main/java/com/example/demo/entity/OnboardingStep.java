@@ -0,0 +1,81 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+// Durable state of one onboarding step for one employee
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_onboarding_step_employee_step", columnNames = {"employee_id", "step"}))
+public class OnboardingStep {
+    public static final String PENDING = "PENDING";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "onboarding_step_seq")
+    @SequenceGenerator(name = "onboarding_step_seq", sequenceName = "onboarding_step_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false, length = 32)
+    private String step; // OnboardingTask name
+
+    @Column(nullable = false, length = 16)
+    private String status; // PENDING, IN_PROGRESS, COMPLETED, FAILED
+
+    private int attempts;
+    private String result; // Value the step produced, e.g. the account ID
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime updatedAt;
+
+    public OnboardingStep() {
+    }
+
+    public OnboardingStep(Long employeeId, String step) {
+        this.employeeId = employeeId;
+        this.step = step;
+        this.status = PENDING;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public Long getEmployeeId() { return employeeId; }
+    public void setEmployeeId(Long employeeId) { this.employeeId = employeeId; }
+
+    public String getStep() { return step; }
+    public void setStep(String step) { this.step = step; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+// A snowflake node id and the node leasing it (SnowflakeNodeLease)
+@Entity
+public class SnowflakeNode {
+    @Id
+    private Integer nodeId;
+
+    @Column(nullable = false)
+    private String leasedBy;
+
+    // Every id generated under this node id is from before this time, also once the lease has expired
+    @Column(nullable = false)
+    private LocalDateTime leasedUntil;
+
+    public SnowflakeNode() {}
+
+    public SnowflakeNode(Integer nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Integer getNodeId() { return nodeId; }
+    public void setNodeId(Integer nodeId) { this.nodeId = nodeId; }
+
+    public String getLeasedBy() { return leasedBy; }
+    public void setLeasedBy(String leasedBy) { this.leasedBy = leasedBy; }
+
+    public LocalDateTime getLeasedUntil() { return leasedUntil; }
+    public void setLeasedUntil(LocalDateTime leasedUntil) { this.leasedUntil = leasedUntil; }
+}
@@ -1,9 +1,73 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Employee;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-}
\ No newline at end of file
+    // Keyset pagination: rows after the given id, typed as the entity or a DTO projection
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit, Class<T> type);
+
+    <T> List<T> findByOnboardingStatusAndIdGreaterThanOrderByIdAsc(String onboardingStatus, Long id,
+                                                                    Limit limit, Class<T> type);
+
+    long countByOnboardingStatus(String onboardingStatus);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.onboardingStatus = :status WHERE e.id = :id")
+    int updateOnboardingStatus(@Param("id") Long id, @Param("status") String status);
+
+    /**
+     * Claims the employees for one onboarding run, marking them IN_PROGRESS. Only employees that
+     * are PENDING or FAILED match, or IN_PROGRESS under the same claim (an earlier run of this node
+     * that died) or a claim taken before staleBefore (a run on any node that died); an employee
+     * another run holds, or that has completed, is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.onboardingStatus = 'IN_PROGRESS', e.onboardingClaim = :claim, " +
+           "e.onboardingClaimedAt = :now WHERE e.id IN :ids AND (e.onboardingStatus IS NULL " +
+           "OR e.onboardingStatus IN ('PENDING', 'FAILED') OR (e.onboardingStatus = 'IN_PROGRESS' " +
+           "AND (e.onboardingClaim = :claim OR e.onboardingClaimedAt IS NULL OR e.onboardingClaimedAt < :staleBefore)))")
+    int claimOnboarding(@Param("ids") Collection<Long> ids, @Param("claim") String claim,
+                        @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids AND e.onboardingClaim = :claim " +
+           "AND e.onboardingStatus = 'IN_PROGRESS'")
+    List<Long> findIdsByOnboardingClaim(@Param("ids") Collection<Long> ids, @Param("claim") String claim);
+
+    // Gives up a claim whose run could not write its outcome, leaving the employee FAILED to be retried
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.onboardingStatus = 'FAILED', e.onboardingClaim = NULL WHERE e.id IN :ids " +
+           "AND e.onboardingClaim = :claim AND e.onboardingStatus = 'IN_PROGRESS'")
+    int releaseOnboardingClaim(@Param("ids") Collection<Long> ids, @Param("claim") String claim);
+
+    // Employees left IN_PROGRESS by a run that died, oldest claim first
+    @Query("SELECT e.id FROM Employee e WHERE e.onboardingStatus = 'IN_PROGRESS' AND (e.onboardingClaimedAt IS NULL " +
+           "OR e.onboardingClaimedAt < :staleBefore) ORDER BY e.onboardingClaimedAt, e.id")
+    List<Long> findIdsWithStaleOnboardingClaim(@Param("staleBefore") LocalDateTime staleBefore, Limit limit);
+
+    // Writes only the onboarding columns, leaving name and email untouched
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.onboardingStatus = :#{#employee.onboardingStatus}, " +
+           "e.onboardingCompletedAt = :#{#employee.onboardingCompletedAt}, " +
+           "e.accountId = :#{#employee.accountId}, " +
+           "e.laptopSerialNumber = :#{#employee.laptopSerialNumber}, " +
+           "e.staffPassId = :#{#employee.staffPassId}, " +
+           "e.welcomePackIssued = :#{#employee.welcomePackIssued} " +
+           "WHERE e.id = :#{#employee.id}")
+    int updateOnboardingResult(@Param("employee") Employee employee);
+}
@@ -1,13 +1,62 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.LaptopInventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LaptopInventoryRepository extends JpaRepository<LaptopInventory, String> {
     @Query("SELECT l FROM LaptopInventory l WHERE l.assigned = false ORDER BY l.serialNumber ASC LIMIT 1")
     Optional<LaptopInventory> findFirstUnassignedLaptop();
-}
\ No newline at end of file
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent callers each get different rows instead of queueing.
+    // A reservation made before staleBefore (or before reservedAt existed) is left by a node that is gone.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT l FROM LaptopInventory l WHERE l.assigned = false " +
+           "AND (l.reservedBy IS NULL OR l.reservedAt IS NULL OR l.reservedAt < :staleBefore) " +
+           "ORDER BY l.serialNumber ASC")
+    List<LaptopInventory> findUnreservedForUpdate(@Param("staleBefore") LocalDateTime staleBefore, Limit limit);
+
+    @Query("SELECT l.serialNumber FROM LaptopInventory l WHERE l.assigned = false AND l.reservedBy = :node")
+    List<String> findReservedSerials(@Param("node") String node);
+
+    Optional<LaptopInventory> findFirstByAssignedEmployeeId(Long employeeId);
+
+    long countByAssignedFalse();
+
+    @Query("SELECT COUNT(l) > 0 FROM LaptopInventory l WHERE l.assigned = false " +
+           "AND (l.reservedBy IS NULL OR l.reservedAt IS NULL OR l.reservedAt < :staleBefore)")
+    boolean existsUnreserved(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE LaptopInventory l SET l.reservedBy = :node, l.reservedAt = :now WHERE l.serialNumber IN :serials")
+    int reserve(@Param("serials") List<String> serials, @Param("node") String node, @Param("now") LocalDateTime now);
+
+    // Hands the node's unused serials back to the inventory
+    @Transactional
+    @Modifying
+    @Query("UPDATE LaptopInventory l SET l.reservedBy = null, l.reservedAt = null " +
+           "WHERE l.assigned = false AND l.reservedBy = :node")
+    int release(@Param("node") String node);
+
+    // Guarded on assigned = false so a serial can never be handed out twice
+    @Transactional
+    @Modifying
+    @Query("UPDATE LaptopInventory l SET l.assigned = true, l.assignedEmployeeId = :employeeId " +
+           "WHERE l.serialNumber = :serial AND l.assigned = false")
+    int assign(@Param("serial") String serial, @Param("employeeId") Long employeeId);
+}
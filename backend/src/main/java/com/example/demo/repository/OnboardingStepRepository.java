@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.OnboardingStep;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OnboardingStepRepository extends JpaRepository<OnboardingStep, Long> {
+    List<OnboardingStep> findByEmployeeId(Long employeeId);
+
+    List<OnboardingStep> findByEmployeeIdIn(Collection<Long> employeeIds);
+
+    // Each transition is a single-row UPDATE rather than a load-and-save of the entity
+    @Transactional
+    @Modifying
+    @Query("UPDATE OnboardingStep s SET s.status = 'IN_PROGRESS', s.attempts = s.attempts + 1, " +
+           "s.startedAt = :now, s.updatedAt = :now WHERE s.employeeId = :employeeId AND s.step = :step")
+    int markStarted(@Param("employeeId") Long employeeId, @Param("step") String step,
+                    @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OnboardingStep s SET s.status = 'COMPLETED', s.result = :result, s.lastError = null, " +
+           "s.completedAt = :now, s.updatedAt = :now WHERE s.employeeId = :employeeId AND s.step = :step")
+    int markCompleted(@Param("employeeId") Long employeeId, @Param("step") String step,
+                      @Param("result") String result, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OnboardingStep s SET s.status = 'FAILED', s.lastError = :error, s.updatedAt = :now " +
+           "WHERE s.employeeId = :employeeId AND s.step = :step")
+    int markFailed(@Param("employeeId") Long employeeId, @Param("step") String step,
+                   @Param("error") String error, @Param("now") LocalDateTime now);
+}
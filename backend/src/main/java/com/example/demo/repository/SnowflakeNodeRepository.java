@@ -0,0 +1,41 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.SnowflakeNode;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SnowflakeNodeRepository extends JpaRepository<SnowflakeNode, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM SnowflakeNode n WHERE n.nodeId = :nodeId")
+    Optional<SnowflakeNode> findForUpdate(@Param("nodeId") Integer nodeId);
+
+    // The owner's own lease first, then expired ones; SKIP LOCKED so nodes starting together take different ids
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM SnowflakeNode n WHERE n.leasedBy = :owner OR n.leasedUntil < :now " +
+           "ORDER BY CASE WHEN n.leasedBy = :owner THEN 0 ELSE 1 END, n.leasedUntil")
+    List<SnowflakeNode> findLeasableForUpdate(@Param("owner") String owner, @Param("now") LocalDateTime now,
+                                              Limit limit);
+
+    @Query("SELECT MAX(n.nodeId) FROM SnowflakeNode n")
+    Integer findMaxNodeId();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SnowflakeNode n SET n.leasedUntil = :until WHERE n.nodeId = :nodeId AND n.leasedBy = :owner")
+    int renew(@Param("nodeId") Integer nodeId, @Param("owner") String owner, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,195 @@
+package com.example.demo.serialization;
+
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of an Employee event. A message is the MAGIC byte, a schema version byte,
+ * a varint bit set of the fields that are present, then each present field in declaration order:
+ * varint numbers, length-prefixed UTF-8 strings and the completion time as epoch seconds plus nanos
+ * in UTC. Nothing is written for field names or type information.
+ *
+ * Schema changes only ever append fields under a new version, so a reader skips the trailing
+ * fields it does not know and an older consumer can still read messages from a newer producer.
+ */
+public final class EmployeeBinaryCodec {
+    // JSON messages start with '{' or whitespace, so this byte tells the two formats apart
+    public static final byte MAGIC = (byte) 0xE1;
+    public static final byte VERSION = 1;
+
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+    private static final int ACCOUNT_ID = 1 << 3;
+    private static final int LAPTOP_SERIAL_NUMBER = 1 << 4;
+    private static final int STAFF_PASS_ID = 1 << 5;
+    private static final int WELCOME_PACK_ISSUED = 1 << 6;
+    private static final int ONBOARDING_COMPLETED_AT = 1 << 7;
+    private static final int ONBOARDING_STATUS = 1 << 8;
+
+    private EmployeeBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(Employee employee) {
+        int fields = 0;
+        fields |= employee.getId() != null ? ID : 0;
+        fields |= employee.getName() != null ? NAME : 0;
+        fields |= employee.getEmail() != null ? EMAIL : 0;
+        fields |= employee.getAccountId() != null ? ACCOUNT_ID : 0;
+        fields |= employee.getLaptopSerialNumber() != null ? LAPTOP_SERIAL_NUMBER : 0;
+        fields |= employee.getStaffPassId() != null ? STAFF_PASS_ID : 0;
+        fields |= employee.isWelcomePackIssued() ? WELCOME_PACK_ISSUED : 0;
+        fields |= employee.getOnboardingCompletedAt() != null ? ONBOARDING_COMPLETED_AT : 0;
+        fields |= employee.getOnboardingStatus() != null ? ONBOARDING_STATUS : 0;
+
+        Writer out = new Writer(64);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(fields);
+        if ((fields & ID) != 0) {
+            out.writeVarLong(employee.getId());
+        }
+        out.writeString(employee.getName());
+        out.writeString(employee.getEmail());
+        out.writeString(employee.getAccountId());
+        out.writeString(employee.getLaptopSerialNumber());
+        out.writeString(employee.getStaffPassId());
+        if ((fields & ONBOARDING_COMPLETED_AT) != 0) {
+            LocalDateTime completedAt = employee.getOnboardingCompletedAt();
+            out.writeVarLong(completedAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(completedAt.getNano());
+        }
+        out.writeString(employee.getOnboardingStatus());
+        return out.toByteArray();
+    }
+
+    public static Employee decode(byte[] data) {
+        if (!isBinary(data) || data.length < 3) {
+            throw new SerializationException("Not a binary employee message");
+        }
+        if (data[1] < 1) {
+            throw new SerializationException("Unsupported employee schema version " + data[1]);
+        }
+        try {
+            Reader in = new Reader(data, 2);
+            int fields = (int) in.readVarLong();
+            Employee employee = new Employee();
+            if ((fields & ID) != 0) {
+                employee.setId(in.readVarLong());
+            }
+            if ((fields & NAME) != 0) {
+                employee.setName(in.readString());
+            }
+            if ((fields & EMAIL) != 0) {
+                employee.setEmail(in.readString());
+            }
+            if ((fields & ACCOUNT_ID) != 0) {
+                employee.setAccountId(in.readString());
+            }
+            if ((fields & LAPTOP_SERIAL_NUMBER) != 0) {
+                employee.setLaptopSerialNumber(in.readString());
+            }
+            if ((fields & STAFF_PASS_ID) != 0) {
+                employee.setStaffPassId(in.readString());
+            }
+            employee.setWelcomePackIssued((fields & WELCOME_PACK_ISSUED) != 0);
+            if ((fields & ONBOARDING_COMPLETED_AT) != 0) {
+                long seconds = in.readVarLong();
+                int nanos = (int) in.readVarLong();
+                employee.setOnboardingCompletedAt(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+            }
+            if ((fields & ONBOARDING_STATUS) != 0) {
+                employee.setOnboardingStatus(in.readString());
+            }
+            return employee;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated binary employee message", e);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        // Null strings are covered by the field bit set and write nothing
+        void writeString(String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary employee message");
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new SerializationException("Invalid string length " + length + " in binary employee message");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
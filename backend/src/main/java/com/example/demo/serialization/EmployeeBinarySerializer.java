@@ -0,0 +1,13 @@
+package com.example.demo.serialization;
+
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.serialization.Serializer;
+
+// Writes Employee events in the EmployeeBinaryCodec format, without type headers
+public class EmployeeBinarySerializer implements Serializer<Employee> {
+
+    @Override
+    public byte[] serialize(String topic, Employee employee) {
+        return employee == null ? null : EmployeeBinaryCodec.encode(employee);
+    }
+}
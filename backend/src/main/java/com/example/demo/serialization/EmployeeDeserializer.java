@@ -0,0 +1,43 @@
+package com.example.demo.serialization;
+
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads Employee events in either format so producers can move from JSON to binary while the
+ * topic still holds JSON messages. Binary messages are recognised by their first byte; everything
+ * else goes to the JSON deserializer, which ignores the type headers written by JsonSerializer.
+ */
+public class EmployeeDeserializer implements Deserializer<Employee> {
+    private final JsonDeserializer<Employee> json = new JsonDeserializer<>(Employee.class, false);
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Employee deserialize(String topic, byte[] data) {
+        if (EmployeeBinaryCodec.isBinary(data)) {
+            return EmployeeBinaryCodec.decode(data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Employee deserialize(String topic, Headers headers, byte[] data) {
+        if (EmployeeBinaryCodec.isBinary(data)) {
+            return EmployeeBinaryCodec.decode(data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.apache.camel.AggregationStrategy;
+import org.apache.camel.Exchange;
+import org.apache.camel.ProducerTemplate;
+import org.apache.camel.RuntimeCamelException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.model.RouteDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs the onboarding steps as Camel routes ({@code onboarding.engine.type=camel}). The "onboarding"
+ * route takes the steps stage by stage in dependency order: a stage with one step calls it directly,
+ * a stage of independent steps is a parallel multicast on the onboarding executor, aggregated so the
+ * failure of the earliest step wins. Each step has its own route, one per downstream system, with a
+ * throttle on concurrent calls; its "-call" route wraps the call in a Resilience4j circuit breaker
+ * that also enforces the step timeout.
+ * Steps already completed by an earlier attempt are skipped; per-route exchange counts and processing
+ * times are on the Camel route console (/actuator/camel/route).
+ */
+@Component
+@ConditionalOnProperty(name = "onboarding.engine.type", havingValue = "camel")
+public class CamelOnboardingEngine extends RouteBuilder implements OnboardingEngine {
+    static final String ONBOARDING = "direct:onboarding";
+    private static final String STEPS = "onboardingSteps";
+    private static final String COMPLETED = "onboardingCompleted";
+    private static final String LISTENER = "onboardingListener";
+
+    private final ProducerTemplate producer;
+    private final TaskExecutor executor;
+    private final Duration stepTimeout;
+    private final int maxConcurrentCalls;
+    private final float failureRateThreshold;
+    private final int slidingWindowSize;
+    private final Duration openDuration;
+
+    public CamelOnboardingEngine(@Lazy ProducerTemplate producer,
+                                 @Qualifier("onboardingExecutor") TaskExecutor executor,
+                                 @Value("${onboarding.engine.step-timeout:30s}") Duration stepTimeout,
+                                 @Value("${onboarding.camel.max-concurrent-calls:16}") int maxConcurrentCalls,
+                                 @Value("${onboarding.camel.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                 @Value("${onboarding.camel.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                 @Value("${onboarding.camel.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.producer = producer;
+        this.executor = executor;
+        this.stepTimeout = stepTimeout;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slidingWindowSize = slidingWindowSize;
+        this.openDuration = openDuration;
+    }
+
+    @Override
+    public void run(Employee employee, Map<OnboardingTask, Consumer<Employee>> steps,
+                    Set<OnboardingTask> completed, OnboardingStepListener listener) {
+        Exchange exchange = producer.send(ONBOARDING, request -> {
+            request.getMessage().setBody(employee);
+            request.setProperty(STEPS, steps);
+            request.setProperty(COMPLETED, completed);
+            request.setProperty(LISTENER, listener);
+        });
+        Exception failure = exchange.getException();
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure != null) {
+            throw new RuntimeException("Onboarding failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    @Override
+    public void configure() {
+        // Step failures go to the listener and back to run(); there is nothing to redeliver or log here
+        errorHandler(noErrorHandler());
+
+        RouteDefinition onboarding = from(ONBOARDING).routeId("onboarding");
+        for (List<OnboardingTask> stage : stages()) {
+            if (stage.size() == 1) {
+                onboarding.to(stepUri(stage.get(0)));
+            } else {
+                onboarding.multicast(new FirstFailure())
+                        .parallelProcessing()
+                        .executorService(new ExecutorServiceAdapter(executor))
+                        .to(stage.stream().map(CamelOnboardingEngine::stepUri).toArray(String[]::new))
+                        .end();
+            }
+        }
+
+        for (OnboardingTask task : OnboardingTask.values()) {
+            from(stepUri(task)).routeId(routeId(task))
+                    .filter(exchange -> !exchange.getProperty(COMPLETED, Set.class).contains(task))
+                        .throttle(maxConcurrentCalls).concurrentRequestsMode()
+                        .process(exchange -> listener(exchange).stepStarted(employee(exchange), task))
+                        .doTry()
+                            .to(callUri(task))
+                            .process(exchange -> listener(exchange).stepCompleted(employee(exchange), task,
+                                    task.readResult(employee(exchange))))
+                        .doCatch(Exception.class)
+                            .process(exchange -> stepFailed(exchange, task))
+                        .end()
+                    .end();
+
+            // The downstream call itself, behind this system's circuit breaker
+            from(callUri(task)).routeId(routeId(task) + "-call")
+                    .circuitBreaker()
+                        .resilience4jConfiguration()
+                            .failureRateThreshold(failureRateThreshold)
+                            .slidingWindowSize(slidingWindowSize)
+                            .minimumNumberOfCalls(slidingWindowSize)
+                            .waitDurationInOpenState((int) openDuration.toSeconds())
+                            .throwExceptionWhenHalfOpenOrOpenState(true)
+                            .timeoutEnabled(true)
+                            .timeoutDuration((int) stepTimeout.toMillis())
+                        .end()
+                        .process(exchange -> step(exchange, task).accept(employee(exchange)))
+                    .end();
+        }
+    }
+
+    // Steps grouped by their depth in the dependency graph; a stage only depends on earlier stages
+    static List<List<OnboardingTask>> stages() {
+        Map<OnboardingTask, Integer> depth = new EnumMap<>(OnboardingTask.class);
+        List<List<OnboardingTask>> stages = new ArrayList<>();
+        for (OnboardingTask task : OnboardingTask.values()) {
+            int level = task.getDependencies().stream().mapToInt(dependency -> depth.get(dependency) + 1).max().orElse(0);
+            depth.put(task, level);
+            if (level == stages.size()) {
+                stages.add(new ArrayList<>());
+            }
+            stages.get(level).add(task);
+        }
+        return stages;
+    }
+
+    private static String stepUri(OnboardingTask task) {
+        return "direct:" + routeId(task);
+    }
+
+    private static String callUri(OnboardingTask task) {
+        return stepUri(task) + "-call";
+    }
+
+    private static String routeId(OnboardingTask task) {
+        return "onboarding-" + task.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static Employee employee(Exchange exchange) {
+        return exchange.getMessage().getBody(Employee.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<Employee> step(Exchange exchange, OnboardingTask task) {
+        return ((Map<OnboardingTask, Consumer<Employee>>) exchange.getProperty(STEPS, Map.class)).get(task);
+    }
+
+    private static OnboardingStepListener listener(Exchange exchange) {
+        return exchange.getProperty(LISTENER, OnboardingStepListener.class);
+    }
+
+    private void stepFailed(Exchange exchange, OnboardingTask task) {
+        RuntimeException error = unwrap(task, exchange.getProperty(Exchange.EXCEPTION_CAUGHT, Throwable.class));
+        listener(exchange).stepFailed(employee(exchange), task, error);
+        throw error;
+    }
+
+    private RuntimeException unwrap(OnboardingTask task, Throwable cause) {
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException
+                || cause instanceof RuntimeCamelException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return new RuntimeException(task + " timed out after " + stepTimeout.toMillis() + " ms");
+        }
+        if (cause instanceof CallNotPermittedException) {
+            return new RuntimeException(task + " not attempted: " + cause.getMessage());
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(task + " failed: " + cause.getMessage(), cause);
+    }
+
+    // Keeps the failure of the earliest step of a stage, as the graph engine reports it
+    private static class FirstFailure implements AggregationStrategy {
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            if (oldExchange == null) {
+                return newExchange;
+            }
+            Exception failure = newExchange.getException();
+            if (failure != null && (oldExchange.getException() == null || index(newExchange) < index(oldExchange))) {
+                oldExchange.setException(failure);
+                oldExchange.setProperty(Exchange.MULTICAST_INDEX, index(newExchange));
+            }
+            return oldExchange;
+        }
+
+        private static int index(Exchange exchange) {
+            return exchange.getProperty(Exchange.MULTICAST_INDEX, Integer.class);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.List;
+
+// Published when employee rows change outside a plain save, e.g. onboarding status and results
+public class EmployeeChangedEvent {
+    private final List<Long> employeeIds;
+
+    public EmployeeChangedEvent(Collection<Long> employeeIds) {
+        this.employeeIds = List.copyOf(employeeIds);
+    }
+
+    public List<Long> getEmployeeIds() { return employeeIds; }
+}
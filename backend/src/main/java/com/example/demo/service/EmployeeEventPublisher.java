@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.entity.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes employee events to new-employees without blocking the caller, longer than the
+ * producer's {@code max.block.ms}, and counts the acknowledgement of every send. Events are sent
+ * once: the outbox keeps an event that was not acknowledged and OutboxRelay sends it again.
+ */
+@Service
+public class EmployeeEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeEventPublisher.class);
+
+    private final KafkaTemplate<String, Employee> kafkaTemplate;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public EmployeeEventPublisher(KafkaTemplate<String, Employee> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    // Completes once the event is acknowledged, or exceptionally if the send failed
+    public CompletableFuture<SendResult<String, Employee>> publish(Employee employee) {
+        return publish(employee, null);
+    }
+
+    // Same, with the record timestamp set to when the event happened rather than when it is sent
+    public CompletableFuture<SendResult<String, Employee>> publish(Employee employee, Long timestamp) {
+        CompletableFuture<SendResult<String, Employee>> send;
+        try {
+            // Keyed by id so every event for an employee lands on the same partition, in order
+            String key = String.valueOf(employee.getId());
+            send = timestamp == null
+                    ? kafkaTemplate.send(KafkaConfig.NEW_EMPLOYEES_TOPIC, key, employee)
+                    : kafkaTemplate.send(KafkaConfig.NEW_EMPLOYEES_TOPIC, null, timestamp, key, employee);
+        } catch (RuntimeException e) {
+            send = CompletableFuture.failedFuture(e);
+        }
+        return send.whenComplete((result, error) -> {
+            if (error == null) {
+                published.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                logger.warn("Publishing employee {} failed: {}", employee.getId(), error.getMessage());
+            }
+        });
+    }
+
+    public long getPublished() { return published.get(); }
+
+    public long getFailed() { return failed.get(); }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BulkIngestResponse;
+import com.example.demo.dto.BulkIngestResult;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates employees, singly or in bulk. Bulk rows are persisted in chunks of
+ * {@code employees.ingest.batch-size}, one transaction per chunk so Hibernate can send them as
+ * JDBC batches. Every employee's new-employees event is written to the outbox in the same
+ * transaction as the employee and published by OutboxRelay, so no request waits on Kafka.
+ */
+@Service
+public class EmployeeIngestionService {
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeIngestionService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public EmployeeIngestionService(EmployeeRepository employeeRepository,
+                                    OutboxService outboxService,
+                                    TransactionTemplate transactionTemplate,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${employees.ingest.batch-size:500}") int batchSize) {
+        this.employeeRepository = employeeRepository;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public Employee create(Employee employee) {
+        return transactionTemplate.execute(status -> {
+            Employee saved = employeeRepository.save(employee);
+            outboxService.enqueue(saved);
+            return saved;
+        });
+    }
+
+    public BulkIngestResponse ingest(List<Employee> employees) {
+        Ingestion ingestion = new Ingestion();
+        for (Employee employee : employees) {
+            ingestion.accept(employee);
+        }
+        return ingestion.finish();
+    }
+
+    // NDJSON: one employee per line, read and persisted as it streams in
+    public BulkIngestResponse ingestNdjson(InputStream input) throws IOException {
+        Ingestion ingestion = new Ingestion();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Employee employee;
+                try {
+                    employee = objectMapper.readValue(line, Employee.class);
+                } catch (JsonProcessingException e) {
+                    ingestion.reject("Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                ingestion.accept(employee);
+            }
+        }
+        return ingestion.finish();
+    }
+
+    private static String validate(Employee employee) {
+        if (employee == null) {
+            return "Empty row";
+        }
+        if (employee.getName() == null || employee.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (employee.getEmail() == null || employee.getEmail().isBlank()) {
+            return "Email is required";
+        }
+        return null;
+    }
+
+    private void persistChunk(List<Employee> chunk, List<BulkIngestResult> chunkResults) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                employeeRepository.saveAll(chunk);
+                outboxService.enqueueAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // One bad row must not sink the whole chunk, so isolate it by saving rows one at a time
+            logger.warn("Batch insert of {} employees failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            persistIndividually(chunk, chunkResults);
+            return;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            chunkResults.get(i).setId(chunk.get(i).getId());
+        }
+    }
+
+    private void persistIndividually(List<Employee> chunk, List<BulkIngestResult> chunkResults) {
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            BulkIngestResult result = chunkResults.get(i);
+            employee.setId(null); // Discard the id handed out by the rolled back batch
+            try {
+                result.setId(create(employee).getId());
+            } catch (RuntimeException e) {
+                result.setStatus(BulkIngestResult.FAILED);
+                result.setMessage("Failed to save employee: " + e.getMessage());
+            }
+        }
+    }
+
+    // Accumulates rows into chunks and records the outcome of every row in input order
+    private class Ingestion {
+        private final List<BulkIngestResult> results = new ArrayList<>();
+        private final List<Employee> chunk = new ArrayList<>(batchSize);
+        private final List<BulkIngestResult> chunkResults = new ArrayList<>(batchSize);
+
+        void accept(Employee employee) {
+            String error = validate(employee);
+            if (error != null) {
+                reject(error);
+                return;
+            }
+            employee.setId(null);
+            if (employee.getOnboardingStatus() == null) {
+                employee.setOnboardingStatus("PENDING");
+            }
+            BulkIngestResult result = new BulkIngestResult(results.size(), null, BulkIngestResult.CREATED, null);
+            results.add(result);
+            chunk.add(employee);
+            chunkResults.add(result);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            results.add(new BulkIngestResult(results.size(), null, BulkIngestResult.REJECTED, message));
+        }
+
+        BulkIngestResponse finish() {
+            flush();
+            BulkIngestResponse response = new BulkIngestResponse(results);
+            logger.info("Bulk ingestion finished: {} received, {} created, {} not created",
+                    response.getReceived(), response.getCreated(), response.getFailed());
+            return response;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            persistChunk(chunk, chunkResults);
+            chunk.clear();
+            chunkResults.clear();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OnboardingDetailsDTO;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Read-through cache for the lookups the dashboard polls. Entries are bounded and expire as set by
+ * {@code spring.cache.caffeine.spec}, and are evicted when the employee is updated or deleted or
+ * its onboarding state changes. Cached employees are shared between callers, so they are for
+ * reading only; code that modifies an employee loads it from the repository.
+ */
+@Service
+public class EmployeeLookupService {
+    public static final String EMPLOYEES = "employees";
+    public static final String ONBOARDING_DETAILS = "onboardingDetails";
+
+    private final EmployeeRepository employeeRepository;
+    private final CacheManager cacheManager;
+
+    public EmployeeLookupService(EmployeeRepository employeeRepository, CacheManager cacheManager) {
+        this.employeeRepository = employeeRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Cacheable(cacheNames = EMPLOYEES, unless = "#result == null")
+    public Employee findEmployee(Long id) {
+        return employeeRepository.findById(id).orElse(null);
+    }
+
+    @Cacheable(cacheNames = ONBOARDING_DETAILS, unless = "#result == null")
+    public OnboardingDetailsDTO findOnboardingDetails(Long id) {
+        return employeeRepository.findById(id).map(OnboardingDetailsDTO::from).orElse(null);
+    }
+
+    public void evict(Long id) {
+        evict(EMPLOYEES, id);
+        evict(ONBOARDING_DETAILS, id);
+    }
+
+    // Runs after the change commits, so a concurrent lookup cannot cache the row as it was before
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        event.getEmployeeIds().forEach(this::evict);
+    }
+
+    private void evict(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EmployeePage;
+import com.example.demo.dto.EmployeeSummary;
+import com.example.demo.dto.OnboardingFailureDTO;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.OnboardingStep;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.OnboardingStepRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Read side for employee listings. Pages are keyset based (id greater than the cursor) so every
+ * page costs an index range scan no matter how deep the client has paged, and summary pages are
+ * read as a DTO projection so the onboarding columns are never selected or hydrated.
+ */
+@Service
+public class EmployeeQueryService {
+    private final EmployeeRepository employeeRepository;
+    private final OnboardingStepRepository stepRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int exportPageSize;
+
+    public EmployeeQueryService(EmployeeRepository employeeRepository,
+                                OnboardingStepRepository stepRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${employees.page.max-size:1000}") int maxPageSize,
+                                @Value("${employees.export.page-size:1000}") int exportPageSize) {
+        this.employeeRepository = employeeRepository;
+        this.stepRepository = stepRepository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.exportPageSize = exportPageSize;
+    }
+
+    public EmployeePage<?> findPage(Long after, int limit, String status, boolean summary) {
+        int size = Math.min(Math.max(limit, 1), maxPageSize);
+        return summary
+                ? findPage(after, size, status, EmployeeSummary.class, EmployeeSummary::getId)
+                : findPage(after, size, status, Employee.class, Employee::getId);
+    }
+
+    // A page of failed onboardings with their failed steps: one query for the page, one for its steps
+    public EmployeePage<OnboardingFailureDTO> findFailures(Long after, int limit, Predicate<Long> retryScheduled) {
+        int size = Math.min(Math.max(limit, 1), maxPageSize);
+        EmployeePage<EmployeeSummary> page = findPage(after, size, "FAILED", EmployeeSummary.class, EmployeeSummary::getId);
+        List<Long> ids = page.getItems().stream().map(EmployeeSummary::getId).toList();
+        Map<Long, List<OnboardingStep>> failedSteps = ids.isEmpty() ? Map.of()
+                : stepRepository.findByEmployeeIdIn(ids).stream()
+                        .filter(step -> "FAILED".equals(step.getStatus()))
+                        .collect(Collectors.groupingBy(OnboardingStep::getEmployeeId));
+        List<OnboardingFailureDTO> failures = page.getItems().stream()
+                .map(employee -> new OnboardingFailureDTO(employee, retryScheduled.test(employee.getId()),
+                        failedSteps.getOrDefault(employee.getId(), List.of())))
+                .toList();
+        return new EmployeePage<>(failures, page.getNextCursor());
+    }
+
+    public List<OnboardingStep> findSteps(Long employeeId) {
+        return stepRepository.findByEmployeeId(employeeId);
+    }
+
+    // Writes every matching employee as NDJSON, one keyset page in memory at a time
+    public void export(OutputStream output, String status, boolean summary) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream out = new BufferedOutputStream(output);
+        Long cursor = null;
+        EmployeePage<?> page;
+        do {
+            page = summary
+                    ? findPage(cursor, exportPageSize, status, EmployeeSummary.class, EmployeeSummary::getId)
+                    : findPage(cursor, exportPageSize, status, Employee.class, Employee::getId);
+            for (Object item : page.getItems()) {
+                out.write(writer.writeValueAsBytes(item));
+                out.write('\n');
+            }
+            out.flush();
+            cursor = page.getNextCursor();
+        } while (page.hasNext());
+    }
+
+    private <T> EmployeePage<T> findPage(Long after, int size, String status, Class<T> type, Function<T, Long> idOf) {
+        long cursor = after == null ? 0L : after;
+        // Fetch one extra row to learn whether another page exists without a count query
+        Limit limit = Limit.of(size + 1);
+        List<T> rows = status == null
+                ? employeeRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit, type)
+                : employeeRepository.findByOnboardingStatusAndIdGreaterThanOrderByIdAsc(status, cursor, limit, type);
+        if (rows.size() <= size) {
+            return new EmployeePage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new EmployeePage<>(items, idOf.apply(items.get(size - 1)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EmployeePatch;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Changes existing employees on the managed entity within one transaction: one SELECT, then an
+ * UPDATE of only the columns whose values changed (Employee is @DynamicUpdate), or none at all.
+ * Cached lookups of the employee are evicted once the change commits.
+ */
+@Service
+public class EmployeeUpdateService {
+    private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmployeeUpdateService(EmployeeRepository employeeRepository, ApplicationEventPublisher eventPublisher) {
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // PUT: every field is taken from the replacement; null when the employee does not exist
+    @Transactional
+    public Employee replace(Long id, Employee replacement) {
+        return update(id, employee -> {
+            employee.setName(replacement.getName());
+            employee.setEmail(replacement.getEmail());
+            employee.setOnboardingStatus(replacement.getOnboardingStatus());
+            employee.setOnboardingCompletedAt(replacement.getOnboardingCompletedAt());
+            employee.setAccountId(replacement.getAccountId());
+            employee.setLaptopSerialNumber(replacement.getLaptopSerialNumber());
+            employee.setStaffPassId(replacement.getStaffPassId());
+            employee.setWelcomePackIssued(replacement.isWelcomePackIssued());
+        });
+    }
+
+    // PATCH: only the fields present in the patch; null when the employee does not exist
+    @Transactional
+    public Employee patch(Long id, EmployeePatch patch) {
+        return update(id, employee -> {
+            setIfPresent(patch.getName(), employee::setName);
+            setIfPresent(patch.getEmail(), employee::setEmail);
+            setIfPresent(patch.getOnboardingStatus(), employee::setOnboardingStatus);
+            setIfPresent(patch.getOnboardingCompletedAt(), employee::setOnboardingCompletedAt);
+            setIfPresent(patch.getAccountId(), employee::setAccountId);
+            setIfPresent(patch.getLaptopSerialNumber(), employee::setLaptopSerialNumber);
+            setIfPresent(patch.getStaffPassId(), employee::setStaffPassId);
+            setIfPresent(patch.getWelcomePackIssued(), employee::setWelcomePackIssued);
+        });
+    }
+
+    private Employee update(Long id, Consumer<Employee> change) {
+        Employee employee = employeeRepository.findById(id).orElse(null);
+        if (employee == null) {
+            return null;
+        }
+        change.accept(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(List.of(id)));
+        return employee;
+    }
+
+    private static <T> void setIfPresent(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * The default engine ({@code onboarding.engine.type=graph}): runs the onboarding steps as a dependency graph. Each step starts on the onboarding executor as
+ * soon as the steps it depends on have finished, so independent steps overlap instead of adding up.
+ * With {@code onboarding.engine.parallel=false} the steps run one after another on the caller thread.
+ * Steps already completed by an earlier attempt are skipped, and every transition is reported to
+ * the given listener. A step's timeout runs from when the step starts, not from when it was queued
+ * behind its dependencies; a step that times out is interrupted and reported failed, and whatever
+ * it reports afterwards is ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "onboarding.engine.type", havingValue = "graph", matchIfMissing = true)
+public class GraphOnboardingEngine implements OnboardingEngine {
+    private final Executor executor;
+    private final Duration stepTimeout;
+    private final boolean parallel;
+
+    public GraphOnboardingEngine(@Qualifier("onboardingExecutor") Executor executor,
+                            @Value("${onboarding.engine.step-timeout:30s}") Duration stepTimeout,
+                            @Value("${onboarding.engine.parallel:true}") boolean parallel) {
+        this.executor = executor;
+        this.stepTimeout = stepTimeout;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void run(Employee employee, Map<OnboardingTask, Consumer<Employee>> steps,
+                    Set<OnboardingTask> completed, OnboardingStepListener listener) {
+        if (parallel) {
+            runParallel(employee, steps, completed, listener);
+        } else {
+            runSequential(employee, steps, completed, listener);
+        }
+    }
+
+    private void runSequential(Employee employee, Map<OnboardingTask, Consumer<Employee>> steps,
+                               Set<OnboardingTask> completed, OnboardingStepListener listener) {
+        for (OnboardingTask task : OnboardingTask.values()) {
+            if (!completed.contains(task)) {
+                runStep(employee, task, steps.get(task), listener);
+            }
+        }
+    }
+
+    private void runParallel(Employee employee, Map<OnboardingTask, Consumer<Employee>> steps,
+                             Set<OnboardingTask> completed, OnboardingStepListener listener) {
+        Map<OnboardingTask, CompletableFuture<Void>> futures = new EnumMap<>(OnboardingTask.class);
+        for (OnboardingTask task : OnboardingTask.values()) {
+            if (completed.contains(task)) {
+                futures.put(task, CompletableFuture.completedFuture(null));
+                continue;
+            }
+            Consumer<Employee> step = steps.get(task);
+            CompletableFuture<?>[] dependencies = task.getDependencies().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            // A failed dependency completes the dependent step exceptionally without running it
+            futures.put(task, CompletableFuture.allOf(dependencies).thenCompose(ignored -> {
+                StepRun run = new StepRun(employee, task, step, listener);
+                executor.execute(run);
+                return run.outcome;
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ignored) {
+            // Reported below against the step that failed first in dependency order
+        }
+
+        for (Map.Entry<OnboardingTask, CompletableFuture<Void>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get();
+            } catch (ExecutionException e) {
+                throw unwrap(entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while onboarding employee " + employee.getName());
+            }
+        }
+    }
+
+    private static void runStep(Employee employee, OnboardingTask task, Consumer<Employee> step,
+                                OnboardingStepListener listener) {
+        listener.stepStarted(employee, task);
+        try {
+            step.accept(employee);
+        } catch (RuntimeException e) {
+            listener.stepFailed(employee, task, e);
+            throw e;
+        }
+        listener.stepCompleted(employee, task, task.readResult(employee));
+    }
+
+    private RuntimeException unwrap(OnboardingTask task, Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TimeoutException) {
+            return timedOut(task);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException(task + " failed: " + cause.getMessage(), cause);
+    }
+
+    private RuntimeException timedOut(OnboardingTask task) {
+        return new RuntimeException(task + " timed out after " + stepTimeout.toMillis() + " ms");
+    }
+
+    // One step on the executor, timed from the moment it starts running
+    private final class StepRun implements Runnable {
+        private final Employee employee;
+        private final OnboardingTask task;
+        private final Consumer<Employee> step;
+        private final OnboardingStepListener listener;
+        private final CompletableFuture<Void> outcome = new CompletableFuture<>();
+        private Thread worker;
+        private boolean done;
+
+        StepRun(Employee employee, OnboardingTask task, Consumer<Employee> step, OnboardingStepListener listener) {
+            this.employee = employee;
+            this.task = task;
+            this.step = step;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                worker = Thread.currentThread();
+            }
+            CompletableFuture.delayedExecutor(stepTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(this::timeOut);
+            try {
+                listener.stepStarted(employee, task);
+                step.accept(employee);
+            } catch (RuntimeException e) {
+                if (finish()) {
+                    listener.stepFailed(employee, task, e);
+                    outcome.completeExceptionally(e);
+                }
+                return;
+            }
+            if (finish()) {
+                listener.stepCompleted(employee, task, task.readResult(employee));
+                outcome.complete(null);
+            }
+        }
+
+        // False when the step already timed out; the interrupt meant for it is cleared so it does
+        // not leak into the next task on this executor thread
+        private synchronized boolean finish() {
+            if (done) {
+                Thread.interrupted();
+                return false;
+            }
+            done = true;
+            return true;
+        }
+
+        private void timeOut() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                worker.interrupt();
+            }
+            listener.stepFailed(employee, task, timedOut(task));
+            outcome.completeExceptionally(new TimeoutException());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.service;
+
+/**
+ * Generates the IDs onboarding steps hand out, such as account and staff pass IDs. Implementations
+ * must be thread-safe and unique across every node that writes to the same database.
+ * OnboardingConfig picks one with {@code onboarding.ids.generator}.
+ */
+public interface IdGenerator {
+
+    String nextId(String prefix);
+}
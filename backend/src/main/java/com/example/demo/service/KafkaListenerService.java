@@ -1,33 +1,129 @@
 package com.example.demo.service;
 
 import com.example.demo.entity.Employee;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Consumes new-employees. {@code onboarding.kafka.listener.mode} picks the listener that runs:
+ * "record" handles one record per callback on the listener thread; "key-ordered" takes each poll
+ * as a batch and onboards it on the KeyOrderedExecutor, in parallel across employees but in order
+ * per record key, and returns only when the whole batch is done so offsets are committed after it;
+ * "batch" does the same but buffers step state and writes the whole poll in one transaction;
+ * "camel" starts none of these and consumes through NewEmployeesRoute, which calls handleNewEmployee.
+ * Failed onboardings are handed to the OnboardingRetryScheduler, so the listener moves on at once.
+ * Redelivered records of employees already running or onboarded are dropped by the onboarding services.
+ * Completed onboardings are timed end to end against the record timestamp.
+ */
 @Service
 public class KafkaListenerService {
     private static final Logger logger = LoggerFactory.getLogger(KafkaListenerService.class);
     private final OnboardingService onboardingService;
+    private final OnboardingBatchService onboardingBatchService;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final OnboardingRetryScheduler retryScheduler;
+    private final OnboardingMetrics metrics;
 
-    public KafkaListenerService(OnboardingService onboardingService) {
+    public KafkaListenerService(OnboardingService onboardingService, OnboardingBatchService onboardingBatchService,
+                                KeyOrderedExecutor keyOrderedExecutor, OnboardingRetryScheduler retryScheduler,
+                                OnboardingMetrics metrics) {
         this.onboardingService = onboardingService;
+        this.onboardingBatchService = onboardingBatchService;
+        this.keyOrderedExecutor = keyOrderedExecutor;
+        this.retryScheduler = retryScheduler;
+        this.metrics = metrics;
+    }
+
+    @KafkaListener(id = "new-employees-record", topics = "new-employees",
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${onboarding.kafka.listener.mode:record}' == 'record'}")
+    public void handleNewEmployee(Employee employee, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+        onboard(employee, timestamp);
     }
 
-    @KafkaListener(topics = "new-employees", groupId = "${spring.kafka.consumer.group-id}")
-    public void handleNewEmployee(Employee employee) {
+    private void onboard(Employee employee, long timestamp) {
         try {
             logger.info("New employee received: {}", employee.getName());
-            onboardingService.startOnboarding(employee);
+            if (onboardingService.startOnboarding(employee)) {
+                metrics.onboardingCompleted(timestamp);
+            }
         } catch (Exception e) {
             logger.error("Error processing new employee: {}", e.getMessage());
             handleFailure(employee, e);
         }
     }
 
+    @KafkaListener(id = "new-employees-key-ordered", topics = "new-employees",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaBatchListenerContainerFactory",
+            autoStartup = "#{'${onboarding.kafka.listener.mode:record}' == 'key-ordered'}")
+    public void handleNewEmployeesKeyOrdered(List<ConsumerRecord<String, Employee>> records) {
+        logger.info("Received batch of {} new employees", records.size());
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Employee> record : records) {
+            Employee employee = record.value();
+            if (employee == null) {
+                logSkippedRecord(record);
+                continue;
+            }
+            String key = record.key() != null ? record.key() : String.valueOf(employee.getId());
+            tasks.add(keyOrderedExecutor.submit(key, () -> onboard(employee, record.timestamp())));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // Failures, including a batch whose results could not be written back, are retried per employee
+    @KafkaListener(id = "new-employees-batch", topics = "new-employees",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "kafkaBatchListenerContainerFactory",
+            autoStartup = "#{'${onboarding.kafka.listener.mode:record}' == 'batch'}")
+    public void handleNewEmployeesBatch(List<ConsumerRecord<String, Employee>> records) {
+        logger.info("Received batch of {} new employees", records.size());
+        List<Employee> employees = new ArrayList<>(records.size());
+        Map<Long, Long> timestamps = new HashMap<>();
+        for (ConsumerRecord<String, Employee> record : records) {
+            if (record.value() == null) {
+                logSkippedRecord(record);
+            } else {
+                employees.add(record.value());
+                timestamps.merge(record.value().getId(), record.timestamp(), Math::min);
+            }
+        }
+        Map<Employee, Exception> failures = onboardingBatchService.startOnboarding(employees);
+        failures.forEach(this::handleFailure);
+        // Only the employees this batch onboarded; duplicates dropped from it keep the status they arrived with
+        Set<Long> completed = employees.stream()
+                .filter(employee -> "COMPLETED".equals(employee.getOnboardingStatus()))
+                .map(Employee::getId)
+                .collect(Collectors.toSet());
+        timestamps.forEach((id, timestamp) -> {
+            if (completed.contains(id)) {
+                metrics.onboardingCompleted(timestamp);
+            }
+        });
+    }
+
+    // Records that could not be deserialized reach batch listeners with a null value
+    private void logSkippedRecord(ConsumerRecord<String, Employee> record) {
+        logger.error("Skipping unreadable record at {}-{}@{}", record.topic(), record.partition(), record.offset());
+    }
+
     private void handleFailure(Employee employee, Exception e) {
         logger.error("Failed to process employee {}: {}", employee.getName(), e.getMessage());
-        // Add any failure handling logic here
+        // First attempt failed; retried with backoff and dead-lettered once the attempts run out
+        retryScheduler.onFailure(employee, 1, e);
     }
-}
\ No newline at end of file
+}
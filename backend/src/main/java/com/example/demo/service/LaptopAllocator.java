@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.repository.LaptopInventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out laptops from LaptopInventory. Each node claims a block of unreserved serials with
+ * SELECT ... FOR UPDATE SKIP LOCKED, so nodes never wait on one another's rows, and then serves
+ * allocations from that block in memory. The final assignment is an UPDATE guarded on
+ * {@code assigned = false}, which keeps a serial from ever going to two employees.
+ * <p>
+ * A node hands its unused serials back when it shuts down. One that dies first leaves them reserved
+ * under its node id, which is the container's HOSTNAME by default and so never comes back; those
+ * reservations expire after {@code onboarding.laptop.reservation-ttl} and are claimed by other nodes.
+ */
+@Service
+public class LaptopAllocator implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(LaptopAllocator.class);
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final LaptopInventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final int blockSize;
+    private final Duration reservationTtl;
+    private final Queue<String> reserved = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public LaptopAllocator(LaptopInventoryRepository inventoryRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${onboarding.laptop.node-id:${HOSTNAME:local}}") String nodeId,
+                           @Value("${onboarding.laptop.block-size:20}") int blockSize,
+                           @Value("${onboarding.laptop.reservation-ttl:1h}") Duration reservationTtl) {
+        this.inventoryRepository = inventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId;
+        this.blockSize = blockSize;
+        this.reservationTtl = reservationTtl;
+    }
+
+    // Returns the serial assigned to the employee, reusing an earlier assignment if there is one
+    public String allocate(Long employeeId) {
+        Optional<LaptopInventory> existing = inventoryRepository.findFirstByAssignedEmployeeId(employeeId);
+        if (existing.isPresent()) {
+            return existing.get().getSerialNumber();
+        }
+        while (true) {
+            String serial = reserved.poll();
+            if (serial == null) {
+                if (!refill()) {
+                    throw new RuntimeException("Laptop assignment failed: no unassigned laptops in inventory");
+                }
+                continue;
+            }
+            if (inventoryRepository.assign(serial, employeeId) == 1) {
+                return serial;
+            }
+            // Lost a race for a serial that was handed out twice from this node's block, try the next one
+        }
+    }
+
+    private List<String> claimBlock() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<String> claimed = inventoryRepository.findUnreservedForUpdate(now.minus(reservationTtl), Limit.of(blockSize))
+                    .stream()
+                    .map(LaptopInventory::getSerialNumber)
+                    .toList();
+            if (!claimed.isEmpty()) {
+                inventoryRepository.reserve(claimed, nodeId, now);
+            }
+            return claimed;
+        });
+    }
+
+    // Blocks reserved by an earlier run of this node and never used, renewed so they do not expire under us
+    private List<String> reclaimOwnBlock() {
+        return transactionTemplate.execute(status -> {
+            List<String> serials = inventoryRepository.findReservedSerials(nodeId);
+            if (!serials.isEmpty()) {
+                inventoryRepository.reserve(serials, nodeId, LocalDateTime.now());
+            }
+            return serials;
+        });
+    }
+
+    // Returns false once the inventory has nothing left to reserve
+    private boolean refill() {
+        refillLock.lock();
+        try {
+            if (!reserved.isEmpty()) {
+                return true; // Another thread refilled while we waited for the lock
+            }
+            List<String> serials = reclaimOwnBlock();
+            // An empty claim can also mean another node held the candidate rows while we looked,
+            // so only give up once no unreserved laptop is left
+            for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS && serials.isEmpty(); attempt++) {
+                serials = claimBlock();
+                if (serials.isEmpty()
+                        && !inventoryRepository.existsUnreserved(LocalDateTime.now().minus(reservationTtl))) {
+                    break;
+                }
+            }
+            logger.debug("Node {} reserved {} laptops", nodeId, serials.size());
+            reserved.addAll(serials);
+            return !serials.isEmpty();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reserved.clear();
+        int released = inventoryRepository.release(nodeId);
+        logger.info("Node {} released {} reserved laptops", nodeId, released);
+    }
+}
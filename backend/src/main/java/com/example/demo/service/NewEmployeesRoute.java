@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kafka.KafkaConstants;
+import org.apache.camel.component.kafka.consumer.KafkaManualCommit;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes new-employees through camel-kafka ({@code onboarding.kafka.listener.mode=camel}) and hands
+ * each record to the same handler as the record listener, so failures go to the retry scheduler.
+ * Combined with {@code onboarding.engine.type=camel} the whole onboarding flow runs as Camel routes.
+ * <p>
+ * Offsets are committed once a record has been handled, not on the consumer's auto-commit timer, so
+ * records polled but not yet onboarded when a node stops are redelivered rather than lost.
+ */
+@Component
+@ConditionalOnProperty(name = "onboarding.kafka.listener.mode", havingValue = "camel")
+public class NewEmployeesRoute extends RouteBuilder {
+    // Unreadable records arrive with a null body, as with the Spring listeners
+    private static final String CONSUMER = "kafka:new-employees"
+            + "?brokers={{spring.kafka.bootstrap-servers}}"
+            + "&groupId={{spring.kafka.consumer.group-id}}"
+            + "&consumersCount={{onboarding.kafka.listener.concurrency:6}}"
+            + "&maxPollRecords={{onboarding.kafka.consumer.max-poll-records:500}}"
+            + "&autoOffsetReset=earliest"
+            + "&autoCommitEnable=false"
+            + "&allowManualCommit=true"
+            + "&valueDeserializer=org.springframework.kafka.support.serializer.ErrorHandlingDeserializer"
+            + "&additionalProperties.spring.deserializer.value.delegate.class="
+            + "com.example.demo.serialization.EmployeeDeserializer";
+
+    private final KafkaListenerService listenerService;
+
+    public NewEmployeesRoute(KafkaListenerService listenerService) {
+        this.listenerService = listenerService;
+    }
+
+    @Override
+    public void configure() {
+        from(CONSUMER).routeId("new-employees")
+                .choice()
+                    .when(body().isNull())
+                        .log(LoggingLevel.ERROR, "Skipping unreadable record at ${header.kafka.PARTITION}@${header.kafka.OFFSET}")
+                    .otherwise()
+                        .process(exchange -> listenerService.handleNewEmployee(
+                                exchange.getMessage().getBody(Employee.class),
+                                exchange.getMessage().getHeader(KafkaConstants.TIMESTAMP, Long.class)))
+                .end()
+                .process(exchange -> exchange.getMessage()
+                        .getHeader(KafkaConstants.MANUAL_COMMIT, KafkaManualCommit.class).commit());
+    }
+}
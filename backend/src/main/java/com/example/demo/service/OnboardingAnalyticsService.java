@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.HourlyOnboardingStats;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.streams.KafkaStreamsInteractiveQueryService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Dashboard aggregates read from the local state stores of the analytics topology, never from the
+ * database: status counts are single-key reads and hourly figures read one window per hour asked for.
+ * Each instance answers from the partitions it owns, so with several instances run the analytics
+ * on one of them.
+ */
+@Service
+@ConditionalOnProperty(name = "onboarding.analytics.enabled", havingValue = "true")
+public class OnboardingAnalyticsService {
+    private final Function<String, ReadOnlyKeyValueStore<String, Long>> keyValueStores;
+    private final Function<String, ReadOnlyWindowStore<String, Long>> windowStores;
+    private final int maxHours;
+
+    @Autowired
+    public OnboardingAnalyticsService(KafkaStreamsInteractiveQueryService queries,
+                                      @Value("${onboarding.analytics.retention:7d}") Duration retention) {
+        this(name -> queries.retrieveQueryableStore(name, QueryableStoreTypes.keyValueStore()),
+                name -> queries.retrieveQueryableStore(name, QueryableStoreTypes.windowStore()),
+                (int) retention.toHours());
+    }
+
+    OnboardingAnalyticsService(Function<String, ReadOnlyKeyValueStore<String, Long>> keyValueStores,
+                               Function<String, ReadOnlyWindowStore<String, Long>> windowStores, int maxHours) {
+        this.keyValueStores = keyValueStores;
+        this.windowStores = windowStores;
+        this.maxHours = maxHours;
+    }
+
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        try (KeyValueIterator<String, Long> all = keyValueStores.apply(OnboardingAnalyticsTopology.STATUS_COUNTS).all()) {
+            all.forEachRemaining(entry -> {
+                if (entry.value != null && entry.value > 0) {
+                    counts.put(entry.key, entry.value);
+                }
+            });
+        }
+        return counts;
+    }
+
+    // The last 'hours' hours, oldest first, including the current one
+    public List<HourlyOnboardingStats> getHourlyStats(int hours) {
+        Instant to = Instant.now();
+        Instant from = firstHour(to, hours);
+        ReadOnlyWindowStore<String, Long> store = windowStores.apply(OnboardingAnalyticsTopology.HOURLY_OUTCOMES);
+        Map<Long, Long> added = perWindow(store, OnboardingAnalyticsTopology.ADDED, from, to);
+        Map<Long, Long> completed = perWindow(store, OnboardingAnalyticsTopology.COMPLETED, from, to);
+        Map<Long, Long> failed = perWindow(store, OnboardingAnalyticsTopology.FAILED, from, to);
+
+        List<HourlyOnboardingStats> stats = new ArrayList<>();
+        for (Instant hour = from; !hour.isAfter(to); hour = hour.plus(OnboardingAnalyticsTopology.WINDOW)) {
+            long start = hour.toEpochMilli();
+            stats.add(new HourlyOnboardingStats(LocalDateTime.ofInstant(hour, ZoneId.systemDefault()),
+                    added.getOrDefault(start, 0L), completed.getOrDefault(start, 0L), failed.getOrDefault(start, 0L)));
+        }
+        return stats;
+    }
+
+    // Failures per step over the last 'hours' hours
+    public Map<String, Long> getStepFailures(int hours) {
+        Instant to = Instant.now();
+        Instant from = firstHour(to, hours);
+        ReadOnlyWindowStore<String, Long> store = windowStores.apply(OnboardingAnalyticsTopology.HOURLY_STEP_FAILURES);
+        Map<String, Long> failures = new LinkedHashMap<>();
+        for (OnboardingTask task : OnboardingTask.values()) {
+            long total = perWindow(store, task.name(), from, to).values().stream().mapToLong(Long::longValue).sum();
+            failures.put(task.name(), total);
+        }
+        return failures;
+    }
+
+    private Instant firstHour(Instant now, int hours) {
+        int span = Math.min(Math.max(hours, 1), maxHours);
+        return now.truncatedTo(ChronoUnit.HOURS).minus(OnboardingAnalyticsTopology.WINDOW.multipliedBy(span - 1));
+    }
+
+    private static Map<Long, Long> perWindow(ReadOnlyWindowStore<String, Long> store, String key, Instant from, Instant to) {
+        Map<Long, Long> counts = new TreeMap<>();
+        try (WindowStoreIterator<Long> windows = store.fetch(key, from, to)) {
+            while (windows.hasNext()) {
+                KeyValue<Long, Long> window = windows.next();
+                counts.put(window.key, window.value);
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.dto.OnboardingProgressEvent;
+import com.example.demo.entity.Employee;
+import com.example.demo.serialization.EmployeeDeserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Duration;
+
+/**
+ * Onboarding analytics as a Kafka Streams topology over new-employees and onboarding-progress.
+ * Both topics are keyed by employee id with the same partition count, so an employee's events are
+ * handled by one task in timestamp order. Aggregates are kept in RocksDB state stores:
+ * <ul>
+ *   <li>{@link #STATUS_COUNTS}: employees per current onboarding status</li>
+ *   <li>{@link #HOURLY_OUTCOMES}: per hour, employees added and onboarding runs completed or failed</li>
+ *   <li>{@link #HOURLY_STEP_FAILURES}: per hour, failures of each step</li>
+ * </ul>
+ * Hourly windows are by record timestamp; new-employees records carry the time the employee was saved.
+ */
+public final class OnboardingAnalyticsTopology {
+    public static final String LATEST_STATUS = "onboarding-latest-status";
+    public static final String STATUS_COUNTS = "onboarding-status-counts";
+    public static final String HOURLY_OUTCOMES = "onboarding-hourly-outcomes";
+    public static final String HOURLY_STEP_FAILURES = "onboarding-hourly-step-failures";
+
+    // Keys of HOURLY_OUTCOMES
+    public static final String ADDED = "ADDED";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    static final Duration WINDOW = Duration.ofHours(1);
+    // How late an event may arrive and still be counted in its hour
+    static final Duration GRACE = Duration.ofMinutes(10);
+
+    private OnboardingAnalyticsTopology() {
+    }
+
+    // Returns the onboarding-progress stream the aggregates are built from
+    public static KStream<String, OnboardingProgressEvent> build(StreamsBuilder builder, Duration retention) {
+        Serde<OnboardingProgressEvent> eventSerde = new JsonSerde<>(OnboardingProgressEvent.class).ignoreTypeHeaders();
+        // Reads both the JSON and the binary new-employees format
+        Serde<Employee> employeeSerde = Serdes.serdeFrom(new JsonSerializer<>(), new EmployeeDeserializer());
+
+        KStream<String, Employee> added = builder.stream(KafkaConfig.NEW_EMPLOYEES_TOPIC,
+                        Consumed.with(Serdes.String(), employeeSerde))
+                .filter((id, employee) -> employee != null && employee.getId() != null);
+        KStream<String, OnboardingProgressEvent> progress = builder.stream(KafkaConfig.ONBOARDING_PROGRESS_TOPIC,
+                Consumed.with(Serdes.String(), eventSerde));
+        KStream<String, OnboardingProgressEvent> overall = progress.filter((id, event) -> event.getStep() == null);
+
+        // Current status per employee, then employees per status; the KTable re-aggregation moves an
+        // employee from its old status to its new one
+        added.mapValues(employee -> OnboardingProgressEvent.overall(employee.getId(), "PENDING"))
+                .merge(overall)
+                .groupByKey(Grouped.with(Serdes.String(), eventSerde))
+                .reduce(OnboardingAnalyticsTopology::latest,
+                        Materialized.<String, OnboardingProgressEvent, KeyValueStore<Bytes, byte[]>>as(LATEST_STATUS)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(eventSerde))
+                .groupBy((id, event) -> KeyValue.pair(event.getStatus(), event.getStatus()),
+                        Grouped.with(Serdes.String(), Serdes.String()))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(STATUS_COUNTS)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        TimeWindows hourly = TimeWindows.ofSizeAndGrace(WINDOW, GRACE);
+        added.map((id, employee) -> KeyValue.pair(ADDED, ADDED))
+                .merge(overall
+                        .filter((id, event) -> COMPLETED.equals(event.getStatus()) || FAILED.equals(event.getStatus()))
+                        .map((id, event) -> KeyValue.pair(event.getStatus(), event.getStatus())))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .windowedBy(hourly)
+                .count(windowed(HOURLY_OUTCOMES, retention));
+
+        progress.filter((id, event) -> event.getStep() != null && FAILED.equals(event.getStatus()))
+                .map((id, event) -> KeyValue.pair(event.getStep(), event.getStep()))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .windowedBy(hourly)
+                .count(windowed(HOURLY_STEP_FAILURES, retention));
+        return progress;
+    }
+
+    // A redelivered new-employees record must not move an employee back to PENDING
+    private static OnboardingProgressEvent latest(OnboardingProgressEvent current, OnboardingProgressEvent next) {
+        return "PENDING".equals(next.getStatus()) ? current : next;
+    }
+
+    private static Materialized<String, Long, WindowStore<Bytes, byte[]>> windowed(String name, Duration retention) {
+        return Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(name)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(Serdes.Long())
+                .withRetention(retention);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.OnboardingStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Onboards a batch of employees in two transactions, each a fixed handful of statements however
+ * large the batch: step state for the whole batch is claimed and loaded in the first, step
+ * transitions are kept in memory while the employees are onboarded, and all results are written
+ * back in the second as batched updates. Employees run in
+ * parallel on the KeyOrderedExecutor, and a failed employee is reported back without affecting
+ * the rest of the batch. Employees already running or onboarded are dropped from the batch, as
+ * in OnboardingService.startOnboarding. When the results cannot be written back, the batch's
+ * claims are released and every employee in it is reported as failed, to be retried.
+ */
+@Service
+public class OnboardingBatchService {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingBatchService.class);
+
+    private final OnboardingService onboardingService;
+    private final OnboardingStateStore stateStore;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+    private final OnboardingDedupWindow dedupWindow;
+
+    public OnboardingBatchService(OnboardingService onboardingService, OnboardingStateStore stateStore,
+                                  KeyOrderedExecutor keyOrderedExecutor, OnboardingDedupWindow dedupWindow) {
+        this.onboardingService = onboardingService;
+        this.stateStore = stateStore;
+        this.keyOrderedExecutor = keyOrderedExecutor;
+        this.dedupWindow = dedupWindow;
+    }
+
+    // Returns the employees whose onboarding failed, with the failure
+    public Map<Employee, Exception> startOnboarding(List<Employee> employees) {
+        Map<Employee, Exception> failures = new ConcurrentHashMap<>();
+        // A redelivered employee can appear twice in one poll; onboard the latest copy once
+        Map<Long, Employee> batch = new LinkedHashMap<>();
+        for (Employee employee : employees) {
+            if (employee.getId() == null) {
+                failures.put(employee, new IllegalArgumentException("Cannot onboard an employee that has not been saved"));
+            } else if (batch.containsKey(employee.getId()) || dedupWindow.tryEnter(employee.getId())) {
+                batch.put(employee.getId(), employee);
+            } else {
+                onboardingService.dropDuplicate(employee, true);
+            }
+        }
+        if (batch.isEmpty()) {
+            return failures;
+        }
+
+        boolean finished = false;
+        try {
+            finished = run(batch, failures);
+        } finally {
+            for (Employee employee : batch.values()) {
+                dedupWindow.exit(employee.getId(), finished && "COMPLETED".equals(employee.getOnboardingStatus()));
+            }
+        }
+        return failures;
+    }
+
+    // False when none of the batch could be claimed
+    private boolean run(Map<Long, Employee> batch, Map<Employee, Exception> failures) {
+        Map<Long, Map<OnboardingTask, OnboardingStep>> states = stateStore.beginAll(batch.values());
+        Map<Long, Employee> claimed = new LinkedHashMap<>();
+        batch.forEach((id, employee) -> {
+            if (states.containsKey(id)) {
+                claimed.put(id, employee);
+            } else {
+                onboardingService.dropDuplicate(employee, false);
+            }
+        });
+        if (claimed.isEmpty()) {
+            return false;
+        }
+
+        StepStateRecorder recorder = new StepStateRecorder(states);
+        List<CompletableFuture<Void>> runs = new ArrayList<>(claimed.size());
+        for (Employee employee : claimed.values()) {
+            runs.add(keyOrderedExecutor.submit(String.valueOf(employee.getId()), () -> {
+                try {
+                    onboardingService.runSteps(employee, states.get(employee.getId()), recorder);
+                } catch (Exception e) {
+                    failures.put(employee, e);
+                }
+            }));
+        }
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+
+        try {
+            stateStore.finishAll(claimed.values(), states);
+        } catch (RuntimeException e) {
+            logger.error("Could not write back the onboarding of a batch of {} employees: {}", claimed.size(),
+                    e.getMessage());
+            stateStore.release(claimed.keySet());
+            claimed.values().forEach(employee -> {
+                employee.setOnboardingStatus("FAILED");
+                failures.put(employee, e);
+            });
+            return true;
+        }
+        logger.info("Onboarded batch of {} employees, {} failed", claimed.size(), failures.size());
+        return true;
+    }
+
+    // Applies transitions to the in-memory step rows; each row is only touched by the thread running its step
+    private static class StepStateRecorder implements OnboardingStepListener {
+        private final Map<Long, Map<OnboardingTask, OnboardingStep>> states;
+
+        StepStateRecorder(Map<Long, Map<OnboardingTask, OnboardingStep>> states) {
+            this.states = states;
+        }
+
+        @Override
+        public void stepStarted(Employee employee, OnboardingTask task) {
+            OnboardingStep step = step(employee, task);
+            LocalDateTime now = LocalDateTime.now();
+            step.setStatus(OnboardingStep.IN_PROGRESS);
+            step.setAttempts(step.getAttempts() + 1);
+            step.setStartedAt(now);
+            step.setUpdatedAt(now);
+        }
+
+        @Override
+        public void stepCompleted(Employee employee, OnboardingTask task, String result) {
+            OnboardingStep step = step(employee, task);
+            LocalDateTime now = LocalDateTime.now();
+            step.setStatus(OnboardingStep.COMPLETED);
+            step.setResult(result);
+            step.setLastError(null);
+            step.setCompletedAt(now);
+            step.setUpdatedAt(now);
+        }
+
+        @Override
+        public void stepFailed(Employee employee, OnboardingTask task, Throwable error) {
+            OnboardingStep step = step(employee, task);
+            step.setStatus(OnboardingStep.FAILED);
+            step.setLastError(OnboardingStateStore.errorMessage(error));
+            step.setUpdatedAt(LocalDateTime.now());
+        }
+
+        private OnboardingStep step(Employee employee, OnboardingTask task) {
+            return states.get(employee.getId()).get(task);
+        }
+    }
+}
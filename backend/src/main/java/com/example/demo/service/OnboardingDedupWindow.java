@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory first check for duplicate onboarding runs on this node, keyed by employee id: the
+ * employees being onboarded right now and, for {@code onboarding.dedup.window-ttl}, up to
+ * {@code onboarding.dedup.window-size} employees whose onboarding completed. Duplicates it catches
+ * are dropped without a database round trip; anything else goes on to the durable claim in
+ * OnboardingStateStore, which also catches runs on other nodes.
+ */
+@Component
+public class OnboardingDedupWindow {
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final Cache<Long, Boolean> completed;
+
+    public OnboardingDedupWindow(@Value("${onboarding.dedup.window-size:100000}") long windowSize,
+                                 @Value("${onboarding.dedup.window-ttl:1h}") Duration windowTtl) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(windowSize)
+                .expireAfterWrite(windowTtl)
+                .build();
+    }
+
+    // False when the employee is already running here or recently completed
+    public boolean tryEnter(Long employeeId) {
+        return completed.getIfPresent(employeeId) == null && running.add(employeeId);
+    }
+
+    // Remembered before it stops counting as running, so a duplicate never slips between the two
+    public void exit(Long employeeId, boolean onboardingCompleted) {
+        if (onboardingCompleted) {
+            completed.put(employeeId, Boolean.TRUE);
+        }
+        running.remove(employeeId);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Runs the onboarding steps; onboarding.engine.type picks the implementation (graph or camel)
+public interface OnboardingEngine {
+
+    // Runs every step not yet completed and rethrows the failure of the first step that failed,
+    // in dependency order. A step runs only after the steps it depends on have completed.
+    void run(Employee employee, Map<OnboardingTask, Consumer<Employee>> steps,
+             Set<OnboardingTask> completed, OnboardingStepListener listener);
+}
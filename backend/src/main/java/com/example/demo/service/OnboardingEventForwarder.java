@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.dto.OnboardingProgressEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes every onboarding transition to onboarding-progress, keyed by employee id, for the
+ * analytics topology. Sends are fire-and-forget: a lost event only skews the dashboard figures.
+ */
+@Service
+@ConditionalOnProperty(name = "onboarding.analytics.enabled", havingValue = "true")
+public class OnboardingEventForwarder {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingEventForwarder.class);
+
+    private final KafkaTemplate<String, OnboardingProgressEvent> progressKafkaTemplate;
+
+    public OnboardingEventForwarder(KafkaTemplate<String, OnboardingProgressEvent> progressKafkaTemplate) {
+        this.progressKafkaTemplate = progressKafkaTemplate;
+    }
+
+    // Overall status events are published inside the transaction that saves them; forward after commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgress(OnboardingProgressEvent event) {
+        progressKafkaTemplate.send(KafkaConfig.ONBOARDING_PROGRESS_TOPIC, String.valueOf(event.getEmployeeId()), event)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        logger.warn("Could not forward onboarding progress of employee {}: {}",
+                                event.getEmployeeId(), error.getMessage());
+                    }
+                });
+    }
+}
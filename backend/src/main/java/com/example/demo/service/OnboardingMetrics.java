@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Onboarding meters, published with percentile histograms so latency can be aggregated across nodes:
+ * <ul>
+ *   <li>{@code onboarding.step} per step and outcome (success/failure)</li>
+ *   <li>{@code onboarding.run} for a whole onboarding run, per outcome</li>
+ *   <li>{@code onboarding.end.to.end} from the employee being added to its onboarding completing</li>
+ *   <li>{@code onboarding.in.flight}, the onboardings running right now</li>
+ *   <li>{@code onboarding.duplicates}, runs dropped as duplicates, per check (memory/database)</li>
+ * </ul>
+ * Timers are registered up front so recording on the hot path is a plain map lookup.
+ */
+@Component
+public class OnboardingMetrics {
+    private final Map<OnboardingTask, Timer> stepSucceeded = new EnumMap<>(OnboardingTask.class);
+    private final Map<OnboardingTask, Timer> stepFailed = new EnumMap<>(OnboardingTask.class);
+    private final Timer runSucceeded;
+    private final Timer runFailed;
+    private final Timer endToEnd;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter duplicatesInMemory;
+    private final Counter duplicatesInDatabase;
+
+    public OnboardingMetrics(MeterRegistry registry) {
+        for (OnboardingTask task : OnboardingTask.values()) {
+            stepSucceeded.put(task, timer("onboarding.step", "Time to run one onboarding step", "success")
+                    .tag("step", task.name()).register(registry));
+            stepFailed.put(task, timer("onboarding.step", "Time to run one onboarding step", "failure")
+                    .tag("step", task.name()).register(registry));
+        }
+        runSucceeded = timer("onboarding.run", "Time to run every onboarding step", "success").register(registry);
+        runFailed = timer("onboarding.run", "Time to run every onboarding step", "failure").register(registry);
+        endToEnd = Timer.builder("onboarding.end.to.end")
+                .description("Time from the employee being added to its onboarding completing")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("onboarding.in.flight", inFlight, AtomicInteger::get)
+                .description("Onboardings currently running")
+                .register(registry);
+        duplicatesInMemory = duplicates("memory").register(registry);
+        duplicatesInDatabase = duplicates("database").register(registry);
+    }
+
+    public long runStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    public void runFinished(long startNanos, boolean succeeded) {
+        inFlight.decrementAndGet();
+        (succeeded ? runSucceeded : runFailed).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void stepFinished(OnboardingTask task, long startNanos, boolean succeeded) {
+        (succeeded ? stepSucceeded : stepFailed).get(task).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // addedAtMillis is the new-employees record timestamp, which the outbox relay sets to when the employee was saved
+    public void onboardingCompleted(long addedAtMillis) {
+        long elapsed = System.currentTimeMillis() - addedAtMillis;
+        if (addedAtMillis > 0 && elapsed >= 0) {
+            endToEnd.record(elapsed, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // inMemory: caught by the dedup window rather than the database claim
+    public void duplicateDropped(boolean inMemory) {
+        (inMemory ? duplicatesInMemory : duplicatesInDatabase).increment();
+    }
+
+    private static Counter.Builder duplicates(String check) {
+        return Counter.builder("onboarding.duplicates")
+                .description("Onboarding runs dropped because the employee was running or already onboarded")
+                .tag("check", check);
+    }
+
+    private static Timer.Builder timer(String name, String description, String outcome) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OnboardingProgressEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans onboarding progress out to Server-Sent Events subscribers. Publishing only offers the event
+ * to the queue of every matching subscriber, so onboarding threads never wait on a client; a
+ * dispatcher pool writes the queues to the connections. Each queue holds at most
+ * {@code onboarding.progress.client-buffer} events, and a subscriber that falls that far behind is
+ * disconnected instead of buffering more. EventSource clients reconnect on their own and should
+ * reload the current state when they do.
+ * <p>
+ * Writes block on the client's socket, so the pool keeps {@code onboarding.progress.dispatch-threads}
+ * threads but grows while writes are stuck, up to {@code onboarding.progress.max-dispatch-threads},
+ * and a stalled client holds up only its own thread. A subscriber whose write has not returned within
+ * {@code onboarding.progress.send-timeout} is disconnected and its thread interrupted. A subscriber
+ * with events to send while every thread is taken is disconnected too.
+ */
+@Service
+public class OnboardingProgressBroadcaster implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingProgressBroadcaster.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService watchdog;
+    private final int clientBuffer;
+    private final Duration timeout;
+    private final Duration sendTimeout;
+
+    public OnboardingProgressBroadcaster(@Value("${onboarding.progress.client-buffer:256}") int clientBuffer,
+                                         @Value("${onboarding.progress.timeout:30m}") Duration timeout,
+                                         @Value("${onboarding.progress.dispatch-threads:2}") int dispatchThreads,
+                                         @Value("${onboarding.progress.max-dispatch-threads:64}") int maxDispatchThreads,
+                                         @Value("${onboarding.progress.send-timeout:10s}") Duration sendTimeout) {
+        this.clientBuffer = clientBuffer;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "progress-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // No queue: a drain starts on an idle thread or a new one, never behind a stuck write
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, Math.max(dispatchThreads, maxDispatchThreads),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long period = Math.max(sendTimeout.toMillis() / 2, 1);
+        watchdog.scheduleAtFixedRate(this::disconnectStalled, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Empty filters match everything
+    public SseEmitter subscribe(Set<Long> employeeIds, Set<String> statuses) {
+        return register(new SseEmitter(timeout.toMillis()), employeeIds, statuses);
+    }
+
+    SseEmitter register(SseEmitter emitter, Set<Long> employeeIds, Set<String> statuses) {
+        Subscription subscription = new Subscription(emitter, employeeIds, statuses);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Overall status events are published inside the transaction that saves them; deliver after commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgress(OnboardingProgressEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    private void disconnectStalled() {
+        long now = System.nanoTime();
+        subscriptions.forEach(subscription -> subscription.disconnectIfStalled(now));
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        watchdog.shutdown();
+        dispatcher.shutdown();
+    }
+
+    private class Subscription {
+        private final SseEmitter emitter;
+        private final Set<Long> employeeIds;
+        private final Set<String> statuses;
+        private final BlockingQueue<OnboardingProgressEvent> queue = new ArrayBlockingQueue<>(clientBuffer);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // The thread inside emitter.send and since when; guarded by this
+        private Thread sender;
+        private long sendingSince;
+        private volatile boolean closed;
+
+        Subscription(SseEmitter emitter, Set<Long> employeeIds, Set<String> statuses) {
+            this.emitter = emitter;
+            this.employeeIds = Set.copyOf(employeeIds);
+            this.statuses = Set.copyOf(statuses);
+        }
+
+        boolean matches(OnboardingProgressEvent event) {
+            return (employeeIds.isEmpty() || employeeIds.contains(event.getEmployeeId()))
+                    && (statuses.isEmpty() || statuses.contains(event.getStatus()));
+        }
+
+        void offer(OnboardingProgressEvent event) {
+            if (!queue.offer(event)) {
+                logger.warn("Disconnecting progress subscriber {} events behind", clientBuffer);
+                subscriptions.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Disconnecting progress subscriber: all dispatch threads are busy");
+                    closed = true;
+                    subscriptions.remove(this);
+                    queue.clear();
+                    emitter.complete();
+                }
+            }
+        }
+
+        // Only one dispatcher thread drains a subscription at a time, so its events stay in order
+        private void drain() {
+            do {
+                OnboardingProgressEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    try {
+                        send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        subscriptions.remove(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                scheduled.set(false);
+            } while (!closed && !queue.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private void send(OnboardingProgressEvent event) throws IOException {
+            synchronized (this) {
+                sender = Thread.currentThread();
+                sendingSince = System.nanoTime();
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(event.getStep() == null ? "status" : "step")
+                        .data(event, MediaType.APPLICATION_JSON));
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                }
+                if (closed) {
+                    Thread.interrupted(); // Clears the watchdog's interrupt before the thread is reused
+                }
+            }
+        }
+
+        void disconnectIfStalled(long now) {
+            synchronized (this) {
+                if (sender == null || now - sendingSince < sendTimeout.toNanos()) {
+                    return;
+                }
+                closed = true;
+                subscriptions.remove(this);
+                queue.clear();
+                emitter.complete();
+                sender.interrupt();
+            }
+            logger.warn("Disconnected progress subscriber whose write was blocked for over {}", sendTimeout);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries failed onboardings on its own small pool, so a failing employee never holds up the
+ * consumer thread or its partition. Attempt n is retried after {@code initial-backoff * multiplier^(n-1)},
+ * capped at {@code max-backoff}, with up to half of that delay taken off at random so employees that
+ * failed together are not all retried together. Once {@code onboarding.retry.max-attempts} have
+ * failed the employee is published to new-employees.DLT and left FAILED.
+ * Scheduled retries live in memory; after a restart, failed employees are picked up again through
+ * {@link #retryFailed}. Employees left IN_PROGRESS by a run that died, whose claim has expired, are
+ * swept up every {@code onboarding.retry.abandoned-interval} and retried the same way.
+ */
+@Service
+public class OnboardingRetryScheduler implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingRetryScheduler.class);
+
+    public static final String ERROR_HEADER = "onboarding-error";
+    public static final String ATTEMPTS_HEADER = "onboarding-attempts";
+
+    private final OnboardingService onboardingService;
+    private final OnboardingBatchService batchService;
+    private final EmployeeRepository employeeRepository;
+    private final OnboardingStateStore stateStore;
+    private final KafkaTemplate<String, Employee> kafkaTemplate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final double multiplier;
+    private final Duration maxBackoff;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    // Latest retry per employee; a retry that has been replaced does nothing when it comes due
+    private final Map<Long, Retry> pending = new ConcurrentHashMap<>();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    public OnboardingRetryScheduler(OnboardingService onboardingService,
+                                    OnboardingBatchService batchService,
+                                    EmployeeRepository employeeRepository,
+                                    OnboardingStateStore stateStore,
+                                    KafkaTemplate<String, Employee> kafkaTemplate,
+                                    @Value("${onboarding.retry.max-attempts:5}") int maxAttempts,
+                                    @Value("${onboarding.retry.initial-backoff:2s}") Duration initialBackoff,
+                                    @Value("${onboarding.retry.multiplier:2.0}") double multiplier,
+                                    @Value("${onboarding.retry.max-backoff:5m}") Duration maxBackoff,
+                                    @Value("${onboarding.retry.batch-size:100}") int batchSize,
+                                    @Value("${onboarding.retry.workers:2}") int workers) {
+        this.onboardingService = onboardingService;
+        this.batchService = batchService;
+        this.employeeRepository = employeeRepository;
+        this.stateStore = stateStore;
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.multiplier = multiplier;
+        this.maxBackoff = maxBackoff;
+        this.batchSize = batchSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "onboarding-retry-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Called when attempt number 'attempts' of an employee's onboarding has failed
+    public void onFailure(Employee employee, int attempts, Exception error) {
+        if (employee.getId() == null || attempts >= maxAttempts) {
+            deadLetter(employee, attempts, error);
+            return;
+        }
+        long delay = backoff(attempts);
+        logger.warn("Onboarding employee {} failed (attempt {}), retrying in {} ms: {}",
+                employee.getId(), attempts, delay, error.getMessage());
+        schedule(employee.getId(), attempts + 1, delay);
+    }
+
+    // Manual retry: starts a fresh run of attempts right away, replacing any retry already scheduled
+    public void retryNow(Long employeeId) {
+        schedule(employeeId, 1, 0);
+    }
+
+    // Re-runs the given employees, or every FAILED employee when none are given, in batches through
+    // OnboardingBatchService; employees that fail again go back to automatic retries
+    public void retryFailed(Collection<Long> employeeIds) {
+        scheduler.execute(() -> {
+            try {
+                if (employeeIds.isEmpty()) {
+                    retryAllFailed();
+                } else {
+                    List<Long> ids = List.copyOf(employeeIds);
+                    for (int from = 0; from < ids.size(); from += batchSize) {
+                        List<Employee> batch = employeeRepository.findAllById(
+                                ids.subList(from, Math.min(from + batchSize, ids.size())));
+                        runBatch(batch.stream()
+                                .filter(employee -> !"COMPLETED".equals(employee.getOnboardingStatus()))
+                                .toList());
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Bulk onboarding retry stopped: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    // One batch of abandoned runs per sweep; each node sweeps, and the claim lets one of them retry an employee
+    @Scheduled(initialDelayString = "${onboarding.retry.abandoned-interval:1m}",
+               fixedDelayString = "${onboarding.retry.abandoned-interval:1m}")
+    public void retryAbandoned() {
+        List<Long> abandoned = stateStore.findAbandoned(batchSize);
+        if (!abandoned.isEmpty()) {
+            logger.warn("Retrying {} onboardings abandoned IN_PROGRESS by a run that died", abandoned.size());
+            retryFailed(abandoned);
+        }
+    }
+
+    public boolean isRetryScheduled(Long employeeId) {
+        return pending.containsKey(employeeId);
+    }
+
+    public int getScheduledCount() { return pending.size(); }
+
+    public long getRetried() { return retried.get(); }
+
+    public long getDeadLettered() { return deadLettered.get(); }
+
+    // Delay after the given number of failed attempts, in milliseconds
+    long backoff(int attempts) {
+        double exponential = initialBackoff.toMillis() * Math.pow(multiplier, attempts - 1);
+        long capped = (long) Math.min(exponential, maxBackoff.toMillis());
+        return capped - ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private void schedule(Long employeeId, int attempt, long delayMillis) {
+        Retry retry = new Retry(employeeId, attempt);
+        pending.put(employeeId, retry);
+        scheduler.schedule(() -> run(retry), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Retry retry) {
+        if (!pending.remove(retry.employeeId(), retry)) {
+            return;
+        }
+        // Reload so the run starts from the state the last attempt saved
+        Employee employee = employeeRepository.findById(retry.employeeId()).orElse(null);
+        if (employee == null || "COMPLETED".equals(employee.getOnboardingStatus())) {
+            logger.info("Dropping onboarding retry for employee {}: {}", retry.employeeId(),
+                    employee == null ? "no longer exists" : "already completed");
+            return;
+        }
+        retried.incrementAndGet();
+        try {
+            if (onboardingService.startOnboarding(employee)) {
+                logger.info("Onboarding employee {} succeeded on attempt {}", employee.getId(), retry.attempt());
+            } else {
+                logger.info("Dropping onboarding retry for employee {}: already being onboarded", employee.getId());
+            }
+        } catch (Exception e) {
+            onFailure(employee, retry.attempt(), e);
+        }
+    }
+
+    // Keyset pages by id: employees that fail again stay FAILED but are behind the cursor
+    private void retryAllFailed() {
+        long cursor = 0L;
+        List<Employee> page;
+        do {
+            page = employeeRepository.findByOnboardingStatusAndIdGreaterThanOrderByIdAsc(
+                    "FAILED", cursor, Limit.of(batchSize), Employee.class);
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+                runBatch(page);
+            }
+        } while (page.size() == batchSize);
+    }
+
+    private void runBatch(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        // The batch run replaces any retry already scheduled for these employees
+        employees.forEach(employee -> pending.remove(employee.getId()));
+        retried.addAndGet(employees.size());
+        Map<Employee, Exception> failures = batchService.startOnboarding(new ArrayList<>(employees));
+        failures.forEach((employee, error) -> onFailure(employee, 1, error));
+        logger.info("Retried batch of {} failed onboardings, {} failed again", employees.size(), failures.size());
+    }
+
+    private void deadLetter(Employee employee, int attempts, Exception error) {
+        deadLettered.incrementAndGet();
+        logger.error("Onboarding employee {} failed after {} attempts, sending to {}: {}",
+                employee.getId(), attempts, KafkaConfig.NEW_EMPLOYEES_DLT, error.getMessage());
+        ProducerRecord<String, Employee> record = new ProducerRecord<>(KafkaConfig.NEW_EMPLOYEES_DLT,
+                employee.getId() == null ? null : String.valueOf(employee.getId()), employee);
+        record.headers().add(ERROR_HEADER, String.valueOf(error.getMessage()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(ATTEMPTS_HEADER, String.valueOf(attempts).getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record).whenComplete((result, sendError) -> {
+                if (sendError != null) {
+                    logger.error("Could not dead-letter employee {}: {}", employee.getId(), sendError.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not dead-letter employee {}: {}", employee.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private record Retry(Long employeeId, int attempt) {
+    }
+}
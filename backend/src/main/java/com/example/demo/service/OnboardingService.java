@@ -1,91 +1,225 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.OnboardingProgressEvent;
 import com.example.demo.entity.Employee;
+import com.example.demo.entity.OnboardingStep;
 import com.example.demo.repository.EmployeeRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
-import java.util.Random;
-import java.util.UUID;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Service
 public class OnboardingService {
     private static final Logger logger = LoggerFactory.getLogger(OnboardingService.class);
-    private final Random random = new Random();
     private final EmployeeRepository employeeRepository;
+    private final OnboardingEngine onboardingEngine;
+    private final OnboardingStateStore stateStore;
+    private final LaptopAllocator laptopAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OnboardingMetrics metrics;
+    private final IdGenerator idGenerator;
+    private final OnboardingDedupWindow dedupWindow;
+    private final Map<OnboardingTask, Consumer<Employee>> steps = new EnumMap<>(OnboardingTask.class);
 
-    public OnboardingService(EmployeeRepository employeeRepository) {
+    // Simulated behaviour of the downstream systems each step calls
+    private final StepSimulation simulation;
+
+    public OnboardingService(EmployeeRepository employeeRepository,
+                             OnboardingEngine onboardingEngine,
+                             OnboardingStateStore stateStore,
+                             LaptopAllocator laptopAllocator,
+                             ApplicationEventPublisher eventPublisher,
+                             OnboardingMetrics metrics,
+                             IdGenerator idGenerator,
+                             StepSimulation simulation,
+                             OnboardingDedupWindow dedupWindow) {
         this.employeeRepository = employeeRepository;
+        this.onboardingEngine = onboardingEngine;
+        this.stateStore = stateStore;
+        this.laptopAllocator = laptopAllocator;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.idGenerator = idGenerator;
+        this.simulation = simulation;
+        this.dedupWindow = dedupWindow;
+        steps.put(OnboardingTask.CREATE_ACCOUNT, this::createAccount);
+        steps.put(OnboardingTask.ISSUE_LAPTOP, this::issueLaptop);
+        steps.put(OnboardingTask.ISSUE_STAFF_PASS, this::issueStaffPass);
+        steps.put(OnboardingTask.ISSUE_WELCOME_PACK, this::issueWelcomePack);
     }
 
     public Employee getEmployeeById(Long id) {
         return employeeRepository.findById(id).orElse(null);
     }
 
-    public void startOnboarding(Employee employee) {
+    /**
+     * Runs the onboarding workflow, resuming after the steps an earlier attempt already completed.
+     * Returns false, without running anything, when the employee is already being onboarded or has
+     * been: checked in the dedup window first, then by the claim in OnboardingStateStore.begin.
+     */
+    public boolean startOnboarding(Employee employee) {
+        if (employee.getId() == null) {
+            throw new IllegalArgumentException("Cannot onboard an employee that has not been saved");
+        }
+        if (!dedupWindow.tryEnter(employee.getId())) {
+            dropDuplicate(employee, true);
+            return false;
+        }
+        boolean finished = false;
         try {
+            Map<OnboardingTask, OnboardingStep> state = stateStore.begin(employee);
+            if (state == null) {
+                dropDuplicate(employee, false);
+                return false;
+            }
             employee.setOnboardingStatus("IN_PROGRESS");
-            
-            // Create account
-            createAccount(employee);
-            
-            // Issue equipment and welcome pack
-            issueLaptop(employee);
-            issueStaffPass(employee);
-            issueWelcomePack(employee);
+            try {
+                runSteps(employee, state, stateStore);
+            } finally {
+                try {
+                    stateStore.finish(employee);
+                } catch (RuntimeException e) {
+                    stateStore.release(List.of(employee.getId()));
+                    throw e;
+                }
+                finished = true;
+            }
+            return true;
+        } finally {
+            dedupWindow.exit(employee.getId(), finished && "COMPLETED".equals(employee.getOnboardingStatus()));
+        }
+    }
+
+    void dropDuplicate(Employee employee, boolean inMemory) {
+        metrics.duplicateDropped(inMemory);
+        logger.debug("Dropping duplicate onboarding of employee {}", employee.getId());
+    }
+
+    // Runs the workflow against step state loaded by the caller, reporting transitions to the listener
+    void runSteps(Employee employee, Map<OnboardingTask, OnboardingStep> state, OnboardingStepListener listener) {
+        long started = metrics.runStarted();
+        boolean succeeded = false;
+        try {
+            employee.setOnboardingStatus("IN_PROGRESS");
+            Set<OnboardingTask> completed = restoreCompletedSteps(employee, state);
+            if (!completed.isEmpty()) {
+                logger.info("Resuming onboarding for employee {} after steps {}", employee.getName(), completed);
+            }
+
+            // Create account, then issue equipment and welcome pack in parallel
+            onboardingEngine.run(employee, steps, completed, new ProgressReporter(listener));
 
             // Mark onboarding as completed
             employee.setOnboardingStatus("COMPLETED");
             employee.setOnboardingCompletedAt(LocalDateTime.now());
             
+            succeeded = true;
             logger.info("Onboarding completed successfully for employee: {}", employee.getName());
         } catch (Exception e) {
             employee.setOnboardingStatus("FAILED");
             logger.error("Onboarding failed for employee: {}", employee.getName(), e);
             throw new RuntimeException("Onboarding failed: " + e.getMessage());
+        } finally {
+            metrics.runFinished(started, succeeded);
+        }
+    }
+
+    // Passes step transitions on to the state listener, publishes them to progress subscribers and times them
+    private class ProgressReporter implements OnboardingStepListener {
+        private final OnboardingStepListener delegate;
+        // Independent steps of one run report from different executor threads
+        private final Map<OnboardingTask, Long> startedAt = new ConcurrentHashMap<>();
+
+        ProgressReporter(OnboardingStepListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void stepStarted(Employee employee, OnboardingTask task) {
+            startedAt.put(task, System.nanoTime());
+            delegate.stepStarted(employee, task);
+            publish(employee, task, OnboardingStep.IN_PROGRESS, null);
+        }
+
+        @Override
+        public void stepCompleted(Employee employee, OnboardingTask task, String result) {
+            metrics.stepFinished(task, startedAt.remove(task), true);
+            delegate.stepCompleted(employee, task, result);
+            publish(employee, task, OnboardingStep.COMPLETED, result);
+        }
+
+        @Override
+        public void stepFailed(Employee employee, OnboardingTask task, Throwable error) {
+            metrics.stepFinished(task, startedAt.remove(task), false);
+            delegate.stepFailed(employee, task, error);
+            publish(employee, task, OnboardingStep.FAILED, error.getMessage());
+        }
+
+        private void publish(Employee employee, OnboardingTask task, String status, String detail) {
+            eventPublisher.publishEvent(new OnboardingProgressEvent(employee.getId(), task.name(), status, detail));
+        }
+    }
+
+    private static Set<OnboardingTask> restoreCompletedSteps(Employee employee, Map<OnboardingTask, OnboardingStep> state) {
+        Set<OnboardingTask> completed = EnumSet.noneOf(OnboardingTask.class);
+        state.forEach((task, step) -> {
+            if (OnboardingStep.COMPLETED.equals(step.getStatus())) {
+                task.applyResult(employee, step.getResult());
+                completed.add(task);
+            }
+        });
+        return completed;
+    }
+
+    // The engine interrupts a step that timed out; it must not record a result on the employee after that
+    private static void checkNotTimedOut(OnboardingTask task) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new RuntimeException(task + " cancelled after timing out");
         }
     }
 
     private void createAccount(Employee employee) {
         logger.info("Creating account for: {}", employee.getName());
-        if (random.nextDouble() < 0.1) { // 10% chance of failure
-            throw new RuntimeException("Account creation failed");
-        }
-        // Generate a unique account ID
-        String accountId = "ACC-" + UUID.randomUUID().toString().substring(0, 8);
+        simulation.call(OnboardingTask.CREATE_ACCOUNT, "Account creation failed");
+        checkNotTimedOut(OnboardingTask.CREATE_ACCOUNT);
+        String accountId = idGenerator.nextId("ACC-");
         employee.setAccountId(accountId);
         logger.info("Account created with ID: {}", accountId);
     }
 
     private void issueLaptop(Employee employee) {
         logger.info("Issuing laptop for: {}", employee.getName());
-        if (random.nextDouble() < 0.1) {
-            throw new RuntimeException("Laptop assignment failed");
-        }
-        // Generate a unique laptop serial number
-        String serialNumber = "LAP-" + UUID.randomUUID().toString().substring(0, 8);
+        simulation.call(OnboardingTask.ISSUE_LAPTOP, "Laptop assignment failed");
+        checkNotTimedOut(OnboardingTask.ISSUE_LAPTOP);
+        // Take a real laptop out of the inventory
+        String serialNumber = laptopAllocator.allocate(employee.getId());
         employee.setLaptopSerialNumber(serialNumber);
         logger.info("Laptop issued with serial number: {}", serialNumber);
     }
 
     private void issueStaffPass(Employee employee) {
         logger.info("Issuing staff pass for: {}", employee.getName());
-        if (random.nextDouble() < 0.1) {
-            throw new RuntimeException("Staff pass creation failed");
-        }
-        // Generate a unique staff pass ID
-        String passId = "PASS-" + UUID.randomUUID().toString().substring(0, 8);
+        simulation.call(OnboardingTask.ISSUE_STAFF_PASS, "Staff pass creation failed");
+        checkNotTimedOut(OnboardingTask.ISSUE_STAFF_PASS);
+        String passId = idGenerator.nextId("PASS-");
         employee.setStaffPassId(passId);
         logger.info("Staff pass issued with ID: {}", passId);
     }
 
     private void issueWelcomePack(Employee employee) {
         logger.info("Issuing welcome pack for: {}", employee.getName());
-        if (random.nextDouble() < 0.1) {
-            throw new RuntimeException("Welcome pack assignment failed");
-        }
+        simulation.call(OnboardingTask.ISSUE_WELCOME_PACK, "Welcome pack assignment failed");
+        checkNotTimedOut(OnboardingTask.ISSUE_WELCOME_PACK);
         employee.setWelcomePackIssued(true);
         logger.info("Welcome pack issued successfully");
     }
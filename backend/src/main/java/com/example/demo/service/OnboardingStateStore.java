@@ -0,0 +1,228 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OnboardingProgressEvent;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.OnboardingStep;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.OnboardingStepRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists onboarding progress. Every step transition is written as soon as it happens, as a
+ * single-row UPDATE of its OnboardingStep, so a crash or failure keeps the steps that already
+ * succeeded and a later attempt can resume from them.
+ * <p>
+ * A run starts by claiming its employees with a conditional UPDATE, which takes the place of the
+ * IN_PROGRESS status write, so a Kafka redelivery or a retry racing the listener finds nothing to
+ * claim and is dropped. With one run per employee at a time and completed steps skipped, no step
+ * of an employee runs twice.
+ * <p>
+ * The claim is held under this node's id. The dedup window keeps a node from running an employee
+ * twice at once, so a claim this node already holds belongs to a run that died without finishing,
+ * and a redelivery to this node takes it back at once; other nodes wait for claim-timeout. A run
+ * whose outcome cannot be written gives its claim up, and claims nobody comes back for are
+ * found by {@link #findAbandoned} and retried.
+ */
+@Service
+public class OnboardingStateStore implements OnboardingStepListener {
+    private static final Logger logger = LoggerFactory.getLogger(OnboardingStateStore.class);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OnboardingStepRepository stepRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Claims older than this are taken over; longer than any run, steps included, may take
+    private final Duration claimTimeout;
+    private final String nodeId;
+
+    public OnboardingStateStore(OnboardingStepRepository stepRepository, EmployeeRepository employeeRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${onboarding.dedup.claim-timeout:10m}") Duration claimTimeout,
+                                @Value("${onboarding.dedup.node-id:${HOSTNAME:local}}") String nodeId) {
+        this.stepRepository = stepRepository;
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.claimTimeout = claimTimeout;
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Claims the employee and loads its step state, creating PENDING rows for steps not seen before.
+     * Returns null, having read nothing, when the employee is held by another run or already onboarded.
+     */
+    @Transactional
+    public Map<OnboardingTask, OnboardingStep> begin(Employee employee) {
+        if (claim(List.of(employee.getId())).isEmpty()) {
+            return null;
+        }
+        Map<OnboardingTask, OnboardingStep> steps = new EnumMap<>(OnboardingTask.class);
+        for (OnboardingStep step : stepRepository.findByEmployeeId(employee.getId())) {
+            steps.put(OnboardingTask.valueOf(step.getStep()), step);
+        }
+        List<OnboardingStep> missing = new ArrayList<>();
+        for (OnboardingTask task : OnboardingTask.values()) {
+            if (!steps.containsKey(task)) {
+                OnboardingStep step = new OnboardingStep(employee.getId(), task.name());
+                missing.add(step);
+                steps.put(task, step);
+            }
+        }
+        stepRepository.saveAll(missing);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(List.of(employee.getId())));
+        eventPublisher.publishEvent(OnboardingProgressEvent.overall(employee.getId(), "IN_PROGRESS"));
+        return steps;
+    }
+
+    // Batch variant of begin: one claim, one query for the existing steps and one JDBC batch for the
+    // new ones; employees that could not be claimed are left out of the result
+    @Transactional
+    public Map<Long, Map<OnboardingTask, OnboardingStep>> beginAll(Collection<Employee> employees) {
+        List<Long> ids = claim(employees.stream().map(Employee::getId).toList());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, Map<OnboardingTask, OnboardingStep>> states = new HashMap<>();
+        for (OnboardingStep step : stepRepository.findByEmployeeIdIn(ids)) {
+            states.computeIfAbsent(step.getEmployeeId(), id -> new EnumMap<>(OnboardingTask.class))
+                    .put(OnboardingTask.valueOf(step.getStep()), step);
+        }
+        List<OnboardingStep> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Map<OnboardingTask, OnboardingStep> steps =
+                    states.computeIfAbsent(id, key -> new EnumMap<>(OnboardingTask.class));
+            for (OnboardingTask task : OnboardingTask.values()) {
+                if (!steps.containsKey(task)) {
+                    OnboardingStep step = new OnboardingStep(id, task.name());
+                    missing.add(step);
+                    steps.put(task, step);
+                }
+            }
+        }
+        stepRepository.saveAll(missing);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(ids));
+        ids.forEach(id -> eventPublisher.publishEvent(OnboardingProgressEvent.overall(id, "IN_PROGRESS")));
+        return states;
+    }
+
+    // The ids claimed for this run; a single employee needs only the update count
+    private List<Long> claim(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = employeeRepository.claimOnboarding(ids, nodeId, now, now.minus(claimTimeout));
+        if (claimed == ids.size()) {
+            return ids;
+        }
+        return claimed == 0 ? List.of() : employeeRepository.findIdsByOnboardingClaim(ids, nodeId);
+    }
+
+    /**
+     * Gives up this node's claim on employees whose run could not write its outcome, marking them
+     * FAILED so a retry or redelivery can claim them at once. When that cannot be written either,
+     * the claims are left to expire and be found by {@link #findAbandoned}.
+     */
+    public void release(Collection<Long> ids) {
+        try {
+            employeeRepository.releaseOnboardingClaim(ids, nodeId);
+        } catch (RuntimeException e) {
+            logger.error("Could not release the onboarding claim on employees {}: {}", ids, e.getMessage());
+        }
+    }
+
+    // Employees still IN_PROGRESS under a claim that has expired: their run died, on any node
+    public List<Long> findAbandoned(int limit) {
+        return employeeRepository.findIdsWithStaleOnboardingClaim(LocalDateTime.now().minus(claimTimeout),
+                Limit.of(limit));
+    }
+
+    // Writes the outcome of a run onto the employee row
+    public void finish(Employee employee) {
+        employeeRepository.updateOnboardingResult(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(List.of(employee.getId())));
+        eventPublisher.publishEvent(OnboardingProgressEvent.overall(employee.getId(), employee.getOnboardingStatus()));
+    }
+
+    /**
+     * Writes the step state and onboarding results of a whole batch in one transaction. The step
+     * and employee rows are each loaded with one query, the batch's state is copied onto those
+     * rows, and the changes go out at commit as JDBC batches of UPDATEs with no further selects.
+     */
+    @Transactional
+    public void finishAll(Collection<Employee> employees, Map<Long, Map<OnboardingTask, OnboardingStep>> states) {
+        List<Long> ids = employees.stream().map(Employee::getId).toList();
+        Map<Long, Map<OnboardingTask, OnboardingStep>> rows = new HashMap<>();
+        for (OnboardingStep row : stepRepository.findByEmployeeIdIn(ids)) {
+            rows.computeIfAbsent(row.getEmployeeId(), id -> new EnumMap<>(OnboardingTask.class))
+                    .put(OnboardingTask.valueOf(row.getStep()), row);
+        }
+        List<OnboardingStep> targets = new ArrayList<>();
+        states.forEach((id, byTask) -> byTask.forEach((task, step) -> {
+            OnboardingStep target = rows.getOrDefault(id, Map.of()).get(task);
+            if (target == null) {
+                return; // Deleted while onboarding
+            }
+            targets.add(target);
+            target.setStatus(step.getStatus());
+            target.setAttempts(step.getAttempts());
+            target.setResult(step.getResult());
+            target.setLastError(step.getLastError());
+            target.setStartedAt(step.getStartedAt());
+            target.setCompletedAt(step.getCompletedAt());
+            target.setUpdatedAt(step.getUpdatedAt());
+        }));
+        stepRepository.saveAll(targets);
+
+        Map<Long, Employee> managed = new HashMap<>();
+        employeeRepository.findAllById(ids).forEach(employee -> managed.put(employee.getId(), employee));
+        for (Employee employee : employees) {
+            Employee target = managed.get(employee.getId());
+            if (target == null) {
+                continue; // Deleted while onboarding
+            }
+            target.setOnboardingStatus(employee.getOnboardingStatus());
+            target.setOnboardingCompletedAt(employee.getOnboardingCompletedAt());
+            target.setAccountId(employee.getAccountId());
+            target.setLaptopSerialNumber(employee.getLaptopSerialNumber());
+            target.setStaffPassId(employee.getStaffPassId());
+            target.setWelcomePackIssued(employee.isWelcomePackIssued());
+        }
+        employeeRepository.saveAll(managed.values());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(ids));
+        managed.values().forEach(employee -> eventPublisher.publishEvent(
+                OnboardingProgressEvent.overall(employee.getId(), employee.getOnboardingStatus())));
+    }
+
+    @Override
+    public void stepStarted(Employee employee, OnboardingTask task) {
+        stepRepository.markStarted(employee.getId(), task.name(), LocalDateTime.now());
+    }
+
+    @Override
+    public void stepCompleted(Employee employee, OnboardingTask task, String result) {
+        stepRepository.markCompleted(employee.getId(), task.name(), result, LocalDateTime.now());
+    }
+
+    @Override
+    public void stepFailed(Employee employee, OnboardingTask task, Throwable error) {
+        stepRepository.markFailed(employee.getId(), task.name(), errorMessage(error), LocalDateTime.now());
+    }
+
+    // Error message trimmed to fit the lastError column
+    static String errorMessage(Throwable error) {
+        String message = String.valueOf(error.getMessage());
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
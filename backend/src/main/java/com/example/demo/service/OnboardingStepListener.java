@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+
+// Receives step transitions from the OnboardingEngine, on the thread that ran the step
+public interface OnboardingStepListener {
+    void stepStarted(Employee employee, OnboardingTask task);
+
+    void stepCompleted(Employee employee, OnboardingTask task, String result);
+
+    void stepFailed(Employee employee, OnboardingTask task, Throwable error);
+}
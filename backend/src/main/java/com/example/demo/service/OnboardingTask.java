@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Onboarding steps and the steps each one has to wait for; declared in dependency order
+public enum OnboardingTask {
+    CREATE_ACCOUNT(Employee::getAccountId, Employee::setAccountId),
+    ISSUE_LAPTOP(Employee::getLaptopSerialNumber, Employee::setLaptopSerialNumber, CREATE_ACCOUNT),
+    ISSUE_STAFF_PASS(Employee::getStaffPassId, Employee::setStaffPassId, CREATE_ACCOUNT),
+    ISSUE_WELCOME_PACK(employee -> String.valueOf(employee.isWelcomePackIssued()),
+            (employee, result) -> employee.setWelcomePackIssued(Boolean.parseBoolean(result)), CREATE_ACCOUNT);
+
+    private final Function<Employee, String> resultReader;
+    private final BiConsumer<Employee, String> resultWriter;
+    private final List<OnboardingTask> dependencies;
+
+    OnboardingTask(Function<Employee, String> resultReader, BiConsumer<Employee, String> resultWriter,
+                   OnboardingTask... dependencies) {
+        this.resultReader = resultReader;
+        this.resultWriter = resultWriter;
+        this.dependencies = List.of(dependencies);
+    }
+
+    public List<OnboardingTask> getDependencies() { return dependencies; }
+
+    // The value this step recorded on the employee, persisted as the step result
+    public String readResult(Employee employee) { return resultReader.apply(employee); }
+
+    // Restores a persisted step result onto the employee when a workflow resumes
+    public void applyResult(Employee employee, String result) { resultWriter.accept(employee, result); }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to new-employees. Every {@code onboarding.outbox.poll-interval} the relay
+ * claims up to {@code onboarding.outbox.batch-size} events in id order with FOR UPDATE SKIP LOCKED,
+ * publishes them all before waiting on any acknowledgement so the producer can batch them, and
+ * deletes the acknowledged events in the same transaction. Relays on other instances skip the
+ * locked rows, so an event is only published by the relay that holds it. An event whose publish
+ * fails stays in the outbox and is picked up again on the next poll.
+ * <p>
+ * The transaction holds a connection and the row locks while it waits, so the batch, sends and
+ * acknowledgements together, is bounded by {@code onboarding.outbox.send-timeout}: a send blocks
+ * for at most the producer's {@code max.block.ms}, events not yet sent by the deadline are left for
+ * the next poll, and an event not acknowledged by then is kept as if it had failed. If it was
+ * delivered after all, the re-sent copy is dropped as a duplicate by the consumer.
+ */
+@Service
+@ConditionalOnProperty(name = "onboarding.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final EmployeeEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxService outboxService,
+                       EmployeeEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${onboarding.outbox.batch-size:500}") int batchSize,
+                       @Value("${onboarding.outbox.send-timeout:10s}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+    }
+
+    // Keeps claiming batches while they come back full and fully published
+    @Scheduled(fixedDelayString = "${onboarding.outbox.poll-interval:200ms}")
+    public void drain() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    // Returns the number of events published and removed from the outbox
+    public int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findNextForUpdate(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            long deadline = System.nanoTime() + sendTimeout.toNanos();
+            List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                if (System.nanoTime() - deadline > 0) {
+                    // Sends are blocking, most likely on a broker that is down
+                    logger.error("Out of time after sending {} of {} outbox events, the rest go out on the next poll",
+                            sends.size(), events.size());
+                    break;
+                }
+                try {
+                    // Stamped with the time the employee was saved, so consumers can measure end-to-end latency
+                    sends.add(eventPublisher.publish(outboxService.readPayload(event),
+                            event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+                } catch (RuntimeException e) {
+                    sends.add(CompletableFuture.failedFuture(e));
+                }
+            }
+            List<Long> acknowledged = new ArrayList<>(events.size());
+            for (int i = 0; i < sends.size(); i++) {
+                try {
+                    sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    acknowledged.add(events.get(i).getId());
+                } catch (ExecutionException e) {
+                    logger.error("Outbox event {} for employee {} not published, will retry: {}",
+                            events.get(i).getId(), events.get(i).getEmployeeId(), e.getCause().getMessage());
+                } catch (TimeoutException e) {
+                    logger.error("Outbox event {} for employee {} not acknowledged within {}, will retry",
+                            events.get(i).getId(), events.get(i).getEmployeeId(), sendTimeout);
+                } catch (InterruptedException e) {
+                    // Shutting down: keep what is acknowledged so far, the rest goes out on the next run
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            logger.debug("Relayed {} of {} outbox events", acknowledged.size(), events.size());
+            return acknowledged.size();
+        });
+        return published == null ? 0 : published;
+    }
+}
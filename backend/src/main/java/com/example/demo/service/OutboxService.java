@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes employee events to the outbox table. Callers must already be in the transaction that
+ * saves the employee, so the event is committed or rolled back together with the row it describes;
+ * OutboxRelay publishes it to Kafka afterwards.
+ */
+@Service
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Employee employee) {
+        outboxEventRepository.save(toEvent(employee));
+    }
+
+    // Saved through saveAll so the inserts go out as one JDBC batch alongside the employee rows
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<Employee> employees) {
+        List<OutboxEvent> events = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            events.add(toEvent(employee));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    public Employee readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Employee.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox event " + event.getId(), e);
+        }
+    }
+
+    private OutboxEvent toEvent(Employee employee) {
+        try {
+            return new OutboxEvent(employee.getId(), objectMapper.writeValueAsString(employee));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize employee " + employee.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Fixed latency per call and failures at a fixed rate. Draws from ThreadLocalRandom, so step
+// threads never contend on a shared generator
+public class RandomStepSimulation implements StepSimulation {
+    private final double failureRate;
+    private final Duration latency;
+
+    public RandomStepSimulation(double failureRate, Duration latency) {
+        this.failureRate = failureRate;
+        this.latency = latency;
+    }
+
+    @Override
+    public void call(OnboardingTask task, String failureMessage) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(failureMessage + ": interrupted");
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new RuntimeException(failureMessage);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style IDs: 41 bits of milliseconds since 2024-01-01, a 10-bit node id and a 12-bit
+ * sequence, so two nodes with different node ids never collide. Time and sequence share one
+ * AtomicLong that only moves forward: more than 4096 IDs in a millisecond, or a clock stepping back,
+ * borrow from the next millisecond instead of waiting or repeating. The ID is written as 13
+ * Crockford base32 digits into a per-thread buffer after the prefix, so the only allocation is the
+ * resulting String.
+ * <p>
+ * Node ids are leased through SnowflakeNodeLease, which also tells a restarted node the time to
+ * resume after, and IDs are only handed out while the lease holds, so no node id and millisecond
+ * is ever used twice, even across restarts or a clock stepping back.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+    static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DIGITS = 13; // ceil(64 / 5)
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int MAX_PREFIX = 32;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_PREFIX + DIGITS]);
+
+    private final long nodeId;
+    // (milliseconds since EPOCH_MILLIS) << SEQUENCE_BITS | sequence, of the last ID handed out
+    private final AtomicLong last;
+    // Epoch milliseconds IDs must stay below: the end of the node id's lease
+    private volatile long validUntilMillis = Long.MAX_VALUE;
+
+    // A node id held for good, as in tests and benchmarks
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, EPOCH_MILLIS);
+    }
+
+    // Hands out no ID for resumeAfterMillis or any earlier millisecond
+    public SnowflakeIdGenerator(long nodeId, long resumeAfterMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.last = new AtomicLong((Math.max(0, resumeAfterMillis - EPOCH_MILLIS) << SEQUENCE_BITS) | SEQUENCE_MASK);
+    }
+
+    public long getNodeId() { return nodeId; }
+
+    // Epoch milliseconds of the last ID handed out
+    public long lastMillis() {
+        return (last.get() >>> SEQUENCE_BITS) + EPOCH_MILLIS;
+    }
+
+    // Called as the lease is renewed
+    void validUntil(long epochMillis) {
+        this.validUntilMillis = epochMillis;
+    }
+
+    public long nextLong() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = last.updateAndGet(previous -> Math.max(previous + 1, now));
+        long millis = next >>> SEQUENCE_BITS;
+        if (millis + EPOCH_MILLIS >= validUntilMillis) {
+            throw new IllegalStateException("Lease on snowflake node id " + nodeId + " has expired");
+        }
+        return millis << (NODE_BITS + SEQUENCE_BITS) | nodeId << SEQUENCE_BITS | (next & SEQUENCE_MASK);
+    }
+
+    @Override
+    public String nextId(String prefix) {
+        long id = nextLong();
+        int length = prefix.length() + DIGITS;
+        char[] buffer = prefix.length() <= MAX_PREFIX ? BUFFER.get() : new char[length];
+        prefix.getChars(0, prefix.length(), buffer, 0);
+        // Fixed width, most significant digit first, so IDs sort in the order they were generated
+        for (int i = length - 1; i >= prefix.length(); i--) {
+            buffer[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(buffer, 0, length);
+    }
+}
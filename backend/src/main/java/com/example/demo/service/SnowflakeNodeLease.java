@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.SnowflakeNode;
+import com.example.demo.repository.SnowflakeNodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases this node's snowflake node id from the snowflake_node table, so no two running nodes
+ * share one: {@code onboarding.ids.node-id} when it is set, which fails startup while another
+ * node holds it, and otherwise the id this node held before, an expired one or a new one.
+ * <p>
+ * The lease runs for {@code onboarding.ids.lease-ttl} and is renewed every third of that. Its end
+ * is written to leased_until and the generator hands out no IDs past it, so leased_until is later
+ * than every ID generated under the node id; whoever leases it next, this node after a restart
+ * included, resumes after that time, whatever the clock says.
+ */
+@Service
+@ConditionalOnProperty(name = "onboarding.ids.generator", havingValue = "snowflake", matchIfMissing = true)
+public class SnowflakeNodeLease implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeNodeLease.class);
+    private static final int MAX_LEASE_ATTEMPTS = 5;
+
+    private final SnowflakeNodeRepository nodeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+    private final Duration leaseTtl;
+    private final SnowflakeIdGenerator generator;
+    private final ScheduledExecutorService renewer;
+
+    public SnowflakeNodeLease(SnowflakeNodeRepository nodeRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${onboarding.ids.node-id:}") String nodeId,
+                              @Value("${HOSTNAME:local}") String owner,
+                              @Value("${onboarding.ids.lease-ttl:1m}") Duration leaseTtl) {
+        this.nodeRepository = nodeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.owner = owner;
+        this.leaseTtl = leaseTtl;
+        this.generator = lease(nodeId.isBlank() ? null : Integer.valueOf(nodeId.trim()));
+        logger.info("Leased snowflake node id {} as {}", generator.getNodeId(), owner);
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snowflake-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = leaseTtl.toMillis() / 3;
+        renewer.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public SnowflakeIdGenerator generator() {
+        return generator;
+    }
+
+    // Extends the lease; a node that could not renew in time stops handing out IDs until it can
+    void renew() {
+        try {
+            long until = Math.max(System.currentTimeMillis(), generator.lastMillis()) + leaseTtl.toMillis();
+            if (nodeRepository.renew((int) generator.getNodeId(), owner, toDateTime(until)) == 1) {
+                generator.validUntil(until);
+            } else {
+                logger.error("Snowflake node id {} has been leased by another node; restart this node to lease a new one",
+                        generator.getNodeId());
+                generator.validUntil(Long.MIN_VALUE);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not renew the lease on snowflake node id {}: {}", generator.getNodeId(), e.getMessage());
+        }
+    }
+
+    private SnowflakeIdGenerator lease(Integer configured) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    SnowflakeNode node = configured != null ? leaseConfigured(configured) : leaseAny();
+                    long now = System.currentTimeMillis();
+                    long resumeAfter = node.getLeasedUntil() == null ? 0 : toMillis(node.getLeasedUntil());
+                    long until = Math.max(now, resumeAfter) + leaseTtl.toMillis();
+                    node.setLeasedBy(owner);
+                    node.setLeasedUntil(toDateTime(until));
+                    nodeRepository.saveAndFlush(node);
+                    SnowflakeIdGenerator leased = new SnowflakeIdGenerator(node.getNodeId(), resumeAfter);
+                    leased.validUntil(until);
+                    return leased;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node inserted the same new node id first
+                if (attempt == MAX_LEASE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private SnowflakeNode leaseConfigured(Integer nodeId) {
+        SnowflakeNode node = nodeRepository.findForUpdate(nodeId).orElseGet(() -> new SnowflakeNode(nodeId));
+        if (node.getLeasedBy() != null && !owner.equals(node.getLeasedBy())
+                && node.getLeasedUntil().isAfter(LocalDateTime.now())) {
+            throw new IllegalStateException("Snowflake node id " + nodeId + " is leased by " + node.getLeasedBy()
+                    + " until " + node.getLeasedUntil());
+        }
+        return node;
+    }
+
+    private SnowflakeNode leaseAny() {
+        List<SnowflakeNode> leasable = nodeRepository.findLeasableForUpdate(owner, LocalDateTime.now(), Limit.of(1));
+        if (!leasable.isEmpty()) {
+            return leasable.get(0);
+        }
+        Integer max = nodeRepository.findMaxNodeId();
+        int next = max == null ? 0 : max + 1;
+        if (next > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalStateException("All " + (SnowflakeIdGenerator.MAX_NODE_ID + 1)
+                    + " snowflake node ids are leased");
+        }
+        return new SnowflakeNode(next);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // The lease is left to expire: the next holder resumes after it either way
+    @Override
+    public void destroy() {
+        renewer.shutdownNow();
+    }
+}
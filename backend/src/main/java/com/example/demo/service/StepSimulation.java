@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+/**
+ * Stands in for the downstream system an onboarding step calls: it may block for that system's
+ * latency and fails the call by throwing. OnboardingConfig picks one with
+ * {@code onboarding.simulation.provider}.
+ */
+public interface StepSimulation {
+
+    // Every call succeeds at once
+    StepSimulation NONE = (task, failureMessage) -> {
+    };
+
+    void call(OnboardingTask task, String failureMessage);
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import java.util.UUID;
+
+// The original scheme: 8 hex digits of a random UUID. Draws on the shared SecureRandom, and with
+// 32 random bits collisions become likely after tens of thousands of IDs
+public class UuidIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId(String prefix) {
+        return prefix + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,23 @@
+-- Schema as spring.jpa.hibernate.ddl-auto=update created it before migrations were introduced:
+-- employees with AUTO_INCREMENT ids and a laptop inventory that only records whether each laptop
+-- is assigned. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start from V2.
+
+create table employee (
+    welcome_pack_issued bit not null,
+    id bigint not null auto_increment,
+    onboarding_completed_at datetime(6),
+    account_id varchar(255),
+    email varchar(255),
+    laptop_serial_number varchar(255),
+    name varchar(255),
+    onboarding_status varchar(255),
+    staff_pass_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table laptop_inventory (
+    assigned bit not null,
+    serial_number varchar(255) not null,
+    primary key (serial_number)
+) engine=InnoDB;
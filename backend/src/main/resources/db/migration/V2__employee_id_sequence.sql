@@ -0,0 +1,9 @@
+-- Employee ids come from employee_seq instead of AUTO_INCREMENT. Databases from before this hold
+-- AUTO_INCREMENT ids, and Hibernate's pooled optimizer hands out the allocationSize (50) ids up to
+-- the value it reads, so the sequence starts at max(id) + 50 for new ids to land above them.
+
+create table employee_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into employee_seq select coalesce(max(id), 0) + 50 from employee;
@@ -0,0 +1,24 @@
+-- Progress of each onboarding step per employee (OnboardingStateStore), so a later attempt resumes
+-- after the steps that already completed. Sequences are tables on MySQL; Hibernate hands out ids
+-- in blocks of 50.
+
+create table onboarding_step (
+    attempts integer not null,
+    completed_at datetime(6),
+    employee_id bigint not null,
+    id bigint not null,
+    started_at datetime(6),
+    updated_at datetime(6),
+    status varchar(16) not null,
+    step varchar(32) not null,
+    last_error varchar(255),
+    result varchar(255),
+    primary key (id),
+    constraint uk_onboarding_step_employee_step unique (employee_id, step)
+) engine=InnoDB;
+
+create table onboarding_step_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into onboarding_step_seq values (1);
@@ -0,0 +1,11 @@
+-- Laptops are reserved in blocks by each node and assigned to an employee (LaptopAllocator).
+-- A reservation older than onboarding.laptop.reservation-ttl, or without a time, is claimed again.
+-- Laptops assigned before this migration keep assigned = 1 without an employee id.
+
+alter table laptop_inventory add column assigned_employee_id bigint;
+alter table laptop_inventory add column reserved_by varchar(255);
+alter table laptop_inventory add column reserved_at datetime(6);
+
+create index idx_laptop_assigned_employee on laptop_inventory (assigned_employee_id);
+
+create index idx_laptop_available on laptop_inventory (assigned, reserved_by, serial_number);
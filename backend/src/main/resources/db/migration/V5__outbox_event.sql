@@ -0,0 +1,16 @@
+-- Employee events waiting to be published to new-employees (OutboxRelay). The payload is the
+-- employee as JSON, longtext so it is never cut off; OutboxEvent maps it with Length.LONG32.
+
+create table outbox_event (
+    created_at datetime(6) not null,
+    employee_id bigint not null,
+    id bigint not null,
+    payload longtext not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_event_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into outbox_event_seq values (1);
@@ -0,0 +1,7 @@
+-- Employees are filtered by onboarding status (keyset pages, failure listings, retry scans, counts)
+-- and looked up by email. Adding the unique key fails if duplicate emails exist; merge or delete
+-- the duplicates first.
+
+create index idx_employee_status_id on employee (onboarding_status, id);
+
+alter table employee add constraint uk_employee_email unique (email);
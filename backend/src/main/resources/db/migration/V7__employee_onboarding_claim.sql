@@ -0,0 +1,4 @@
+-- The node whose onboarding run holds each employee and when it claimed it (OnboardingStateStore.begin).
+-- A claim older than onboarding.dedup.claim-timeout is taken to belong to a crashed run.
+alter table employee add column onboarding_claim varchar(64);
+alter table employee add column onboarding_claimed_at datetime(6);
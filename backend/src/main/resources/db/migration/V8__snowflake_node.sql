@@ -0,0 +1,9 @@
+-- Snowflake node ids leased by running nodes (SnowflakeNodeLease). leased_until also marks the
+-- latest time ids were generated under the node id, so whoever leases it next resumes after it.
+
+create table snowflake_node (
+    node_id integer not null,
+    leased_by varchar(255) not null,
+    leased_until datetime(6) not null,
+    primary key (node_id)
+) engine=InnoDB;
@@ -0,0 +1,97 @@
+package com.example.demo;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.LaptopInventoryRepository;
+import com.example.demo.service.EmployeeIngestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// End-to-end regression harness: employees are added through the outbox, relayed to an embedded
+// broker, consumed and onboarded against H2. Reports throughput and latency percentiles from the
+// onboarding meters; run on its own with -Dtest=OnboardingPipelineLoadTest to compare changes.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipeline;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.profiles.include=prod",
+        "onboarding.simulation.failure-rate=0",
+        "onboarding.simulation.step-latency=2ms",
+        "onboarding.outbox.poll-interval=20ms",
+        "onboarding.analytics.enabled=false",
+        "management.metrics.distribution.percentiles.onboarding.end.to.end=0.5,0.95,0.99",
+        "management.metrics.distribution.percentiles.onboarding.step=0.5,0.95,0.99"})
+@EmbeddedKafka(partitions = 6, topics = {KafkaConfig.NEW_EMPLOYEES_TOPIC, KafkaConfig.NEW_EMPLOYEES_DLT})
+@Tag("load")
+class OnboardingPipelineLoadTest {
+    private static final int EMPLOYEES = 1_000;
+    private static final long TIMEOUT_MILLIS = 180_000;
+
+    @Autowired
+    private EmployeeIngestionService ingestionService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LaptopInventoryRepository inventoryRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void onboardsEveryEmployeeAddedThroughTheOutbox() throws InterruptedException {
+        inventoryRepository.saveAll(IntStream.range(0, EMPLOYEES)
+                .mapToObj(i -> new LaptopInventory(String.format("LAP-%06d", i)))
+                .toList());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            ingestionService.create(new Employee("Pipeline " + i, "pipeline" + i + "@example.com"));
+        }
+        long added = System.nanoTime();
+        long completed;
+        while ((completed = employeeRepository.countByOnboardingStatus("COMPLETED")) < EMPLOYEES
+                && System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+            Thread.sleep(100);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("Pipeline: %d employees added in %,.0f ms, onboarded in %,.1f s (%,.0f employees/sec)%n",
+                EMPLOYEES, (added - start) / 1_000_000.0, seconds, completed / seconds);
+        print("end to end", meterRegistry.get("onboarding.end.to.end").timer());
+        meterRegistry.get("onboarding.step").tag("outcome", "success").timers()
+                .forEach(timer -> print(timer.getId().getTag("step"), timer));
+        assertEquals(EMPLOYEES, completed);
+    }
+
+    private static void print(String name, Timer timer) {
+        StringBuilder line = new StringBuilder(String.format("  %-18s n=%-6d", name, timer.count()));
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            line.append(String.format(" p%-4s %,9.1f ms", trim(percentile.percentile() * 100),
+                    percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        System.out.println(line);
+    }
+
+    private static String trim(double percent) {
+        return percent == Math.rint(percent) ? String.valueOf((long) percent) : String.valueOf(percent);
+    }
+}
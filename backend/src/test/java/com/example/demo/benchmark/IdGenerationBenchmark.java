@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.IdGenerator;
+import com.example.demo.service.SnowflakeIdGenerator;
+import com.example.demo.service.UuidIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the account and staff pass IDs createAccount and issueStaffPass generate, per
+ * onboarding.ids.generator, on one thread and on four contending ones (onboarding steps run on a
+ * shared pool). Add {@code -prof gc} to main's options to compare allocation per ID.
+ * Run with {@code mvn -Pjmh integration-test -Djmh.include=IdGenerationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Param({"uuid", "snowflake"})
+    public String generator;
+
+    private IdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = "uuid".equals(generator) ? new UuidIdGenerator() : new SnowflakeIdGenerator(1);
+    }
+
+    @Benchmark
+    public String nextId() {
+        return ids.nextId("ACC-");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextIdContended() {
+        return ids.nextId("ACC-");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(IdGenerationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
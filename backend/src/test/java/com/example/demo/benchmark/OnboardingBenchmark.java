@@ -0,0 +1,97 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.service.GraphOnboardingEngine;
+import com.example.demo.service.LaptopAllocator;
+import com.example.demo.service.OnboardingDedupWindow;
+import com.example.demo.service.OnboardingEngine;
+import com.example.demo.service.OnboardingMetrics;
+import com.example.demo.service.OnboardingService;
+import com.example.demo.service.OnboardingStateStore;
+import com.example.demo.service.RandomStepSimulation;
+import com.example.demo.service.SnowflakeIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * OnboardingService.startOnboarding with the persistence and laptop inventory stubbed out, so the
+ * score is the workflow itself: the step graph, its executor hand-offs and the simulated downstream
+ * latency set by stepLatencyMillis. Step logging is raised to WARN, as in the prod profile.
+ * Run with {@code mvn -Pjmh integration-test -Djmh.include=OnboardingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnboardingBenchmark {
+
+    @Param({"0", "2"})
+    public int stepLatencyMillis;
+
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private ThreadPoolTaskExecutor executor;
+    private OnboardingService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.WARN);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(16);
+        executor.setMaxPoolSize(16);
+        executor.setThreadNamePrefix("onboarding-");
+        executor.initialize();
+        OnboardingEngine engine = new GraphOnboardingEngine(executor, Duration.ofSeconds(5), parallel);
+        service = new OnboardingService(mock(EmployeeRepository.class), engine, mock(OnboardingStateStore.class),
+                mock(LaptopAllocator.class), event -> {}, new OnboardingMetrics(new SimpleMeterRegistry()),
+                new SnowflakeIdGenerator(0),
+                new RandomStepSimulation(0.0, Duration.ofMillis(stepLatencyMillis)),
+                new OnboardingDedupWindow(1_000, Duration.ofMinutes(1)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Employee startOnboarding() {
+        Employee employee = new Employee("Benchmark", "benchmark@example.com");
+        employee.setId(nextId.incrementAndGet());
+        service.startOnboarding(employee);
+        return employee;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(OnboardingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.OnboardingDetailsDTO;
+import com.example.demo.entity.Employee;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /employees/{id}/onboarding response cost: mapping an Employee to OnboardingDetailsDTO, and
+ * mapping plus JSON encoding with an ObjectMapper configured the way Spring MVC builds it.
+ * Run with {@code mvn -Pjmh integration-test -Djmh.include=OnboardingDetailsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnboardingDetailsBenchmark {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Employee employee;
+
+    @Setup
+    public void setUp() {
+        employee = SerializationBenchmark.sampleEmployee();
+    }
+
+    @Benchmark
+    public OnboardingDetailsDTO map() {
+        return OnboardingDetailsDTO.from(employee);
+    }
+
+    @Benchmark
+    public byte[] mapAndWriteJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(OnboardingDetailsDTO.from(employee));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(OnboardingDetailsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
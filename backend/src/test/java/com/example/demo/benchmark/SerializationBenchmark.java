@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.serialization.EmployeeBinarySerializer;
+import com.example.demo.serialization.EmployeeDeserializer;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize and deserialize cost of a new-employees message, JSON (JsonSerializer with type
+ * headers, as KafkaConfig uses by default) against the binary codec. Run with
+ * {@code mvn -Pjmh integration-test -Djmh.include=SerializationBenchmark}, or run main() on the test
+ * classpath (for example from the IDE), which prints bytes/message before running the benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final String TOPIC = "new-employees";
+
+    private final JsonSerializer<Employee> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<Employee> jsonDeserializer = new JsonDeserializer<>(Employee.class, false);
+    private final EmployeeBinarySerializer binarySerializer = new EmployeeBinarySerializer();
+    private final EmployeeDeserializer employeeDeserializer = new EmployeeDeserializer();
+
+    private Employee employee;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        employee = sampleEmployee();
+        json = jsonSerializer.serialize(TOPIC, new RecordHeaders(), employee);
+        binary = binarySerializer.serialize(TOPIC, employee);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), employee);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(TOPIC, employee);
+    }
+
+    @Benchmark
+    public Employee deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, new RecordHeaders(), json);
+    }
+
+    @Benchmark
+    public Employee deserializeBinary() {
+        return employeeDeserializer.deserialize(TOPIC, new RecordHeaders(), binary);
+    }
+
+    static Employee sampleEmployee() {
+        Employee employee = new Employee("Jane Example", "jane.example@example.com");
+        employee.setId(123_456L);
+        employee.setAccountId("ACC-1700000000000");
+        employee.setLaptopSerialNumber("LAP-000123");
+        employee.setStaffPassId("PASS-1700000000123");
+        employee.setWelcomePackIssued(true);
+        employee.setOnboardingCompletedAt(LocalDateTime.of(2024, 5, 17, 9, 30, 12, 345_000_000));
+        employee.setOnboardingStatus("COMPLETED");
+        return employee;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Employee employee = sampleEmployee();
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = new JsonSerializer<Employee>().serialize(TOPIC, headers, employee);
+        int headerBytes = 0;
+        for (Header header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        byte[] binary = new EmployeeBinarySerializer().serialize(TOPIC, employee);
+        System.out.printf("Bytes/message: JSON %d (+%d in type headers), binary %d%n",
+                json.length, headerBytes, binary.length);
+
+        new Runner(new OptionsBuilder().include(SerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.service.EmployeeEventPublisher;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Publish throughput and wire cost through EmployeeEventPublisher on an embedded broker under each
+// producer profile. The in-process broker has no network in between, so the profile's gain shows up
+// as fewer produce requests and bytes sent rather than as a large msgs/sec difference.
+@EmbeddedKafka(partitions = 6, topics = KafkaConfig.NEW_EMPLOYEES_TOPIC)
+@Tag("load")
+class ProducerProfileThroughputTest {
+    private static final int MESSAGES = 20_000;
+
+    @Test
+    void throughputProfileSendsFewerRequestsAndBytes(EmbeddedKafkaBroker broker) {
+        // Warm up the broker and the JIT so the first profile measured is not penalised
+        publish(broker, Map.of());
+
+        Run defaults = publish(broker, Map.of());
+        Run lz4 = publish(broker, throughputProfile("lz4"));
+        Run zstd = publish(broker, throughputProfile("zstd"));
+
+        defaults.print("client defaults");
+        lz4.print("kafka-throughput lz4");
+        zstd.print("kafka-throughput zstd");
+        assertTrue(lz4.requests() < defaults.requests(), "lz4 profile should batch into fewer requests");
+        assertTrue(lz4.bytes() < defaults.bytes() / 2, "lz4 profile should compress the batches");
+        assertTrue(zstd.bytes() < lz4.bytes(), "zstd should compress further than lz4");
+    }
+
+    // Mirrors application-kafka-throughput.properties
+    private static Map<String, Object> throughputProfile(String compression) {
+        return Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 131_072,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compression,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all");
+    }
+
+    private static Run publish(EmbeddedKafkaBroker broker, Map<String, Object> profile) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.putAll(profile);
+        DefaultKafkaProducerFactory<String, Employee> factory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new JsonSerializer<>());
+        EmployeeEventPublisher publisher = new EmployeeEventPublisher(new KafkaTemplate<>(factory));
+        try {
+            List<CompletableFuture<SendResult<String, Employee>>> acks = new ArrayList<>(MESSAGES);
+            long start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                Employee employee = new Employee("Employee " + i, "employee" + i + "@example.com");
+                employee.setId((long) i);
+                acks.add(publisher.publish(employee));
+            }
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)).join();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            assertEquals(MESSAGES, publisher.getPublished());
+            assertEquals(0, publisher.getFailed());
+            return new Run(MESSAGES / seconds, metric(factory, "request-total"), metric(factory, "outgoing-byte-total"));
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static double metric(DefaultKafkaProducerFactory<String, Employee> factory, String name) {
+        try (Producer<String, Employee> producer = factory.createProducer()) {
+            return producer.metrics().entrySet().stream()
+                    .filter(entry -> entry.getKey().group().equals("producer-metrics")
+                            && entry.getKey().name().equals(name))
+                    .mapToDouble(entry -> (Double) entry.getValue().metricValue())
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    private record Run(double messagesPerSecond, double requests, double bytes) {
+        void print(String profile) {
+            System.out.printf("%-22s %,8.0f msgs/sec %,8.0f requests %,12.0f bytes sent%n",
+                    profile, messagesPerSecond, requests, bytes);
+        }
+    }
+}
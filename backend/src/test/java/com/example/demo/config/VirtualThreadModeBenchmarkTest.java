@@ -0,0 +1,112 @@
+package com.example.demo.config;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.LaptopInventoryRepository;
+import com.example.demo.service.EmployeeIngestionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The onboarding pipeline with and without the virtual-threads profile: the application is started
+// once per mode on its own embedded broker and H2 database, employees are added through the outbox
+// and onboarded by the key-ordered listener, and each step blocks on a simulated downstream call.
+// Virtual threads need a Java 21 runtime; the java21 build profile compiles for it when run on one.
+// No results on 21 have been recorded yet, so whether the profile helps is still open.
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Tag("load")
+class VirtualThreadModeBenchmarkTest {
+    private static final int EMPLOYEES = 2_000;
+    private static final String STEP_LATENCY = "20ms";
+    private static final long TIMEOUT_MILLIS = 300_000;
+
+    @Test
+    void comparesThePipelineWithAndWithoutVirtualThreads() throws Exception {
+        Run platform = run("platform", "prod");
+        Run virtual = run("virtual", "prod,virtual-threads");
+
+        System.out.printf("%d employees, %s step latency: platform threads %,.0f employees/sec, end-to-end p99 %,.0f ms; "
+                        + "virtual threads %,.0f employees/sec, end-to-end p99 %,.0f ms (%.2fx)%n",
+                EMPLOYEES, STEP_LATENCY, platform.employeesPerSecond, platform.p99Millis,
+                virtual.employeesPerSecond, virtual.p99Millis, virtual.employeesPerSecond / platform.employeesPerSecond);
+        assertEquals(EMPLOYEES, platform.completed);
+        assertEquals(EMPLOYEES, virtual.completed);
+        assertFalse(platform.virtualExecutor);
+        assertTrue(virtual.virtualExecutor);
+    }
+
+    private static Run run(String name, String profiles) throws InterruptedException {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 6);
+        broker.afterPropertiesSet();
+        Map<String, String> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.profiles.include", profiles);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+        properties.put("onboarding.kafka.listener.mode", "key-ordered");
+        properties.put("onboarding.kafka.listener.key-ordered-lanes", "64");
+        properties.put("onboarding.simulation.failure-rate", "0");
+        properties.put("onboarding.simulation.step-latency", STEP_LATENCY);
+        properties.put("onboarding.outbox.poll-interval", "20ms");
+        properties.put("onboarding.analytics.enabled", "false");
+        properties.put("management.metrics.distribution.percentiles.onboarding.end.to.end", "0.99");
+
+        // As command-line arguments, so they take precedence over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+        try {
+            context.getBean(LaptopInventoryRepository.class).saveAll(IntStream.range(0, EMPLOYEES)
+                    .mapToObj(i -> new LaptopInventory(String.format("LAP-%06d", i)))
+                    .toList());
+            EmployeeIngestionService ingestionService = context.getBean(EmployeeIngestionService.class);
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                ingestionService.create(new Employee(name + " " + i, name + i + "@example.com"));
+            }
+            long completed;
+            while ((completed = employeeRepository.countByOnboardingStatus("COMPLETED")) < EMPLOYEES
+                    && System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+                Thread.sleep(100);
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            double p99 = 0;
+            for (ValueAtPercentile percentile : context.getBean(MeterRegistry.class)
+                    .get("onboarding.end.to.end").timer().takeSnapshot().percentileValues()) {
+                p99 = percentile.value(TimeUnit.MILLISECONDS);
+            }
+            return new Run(completed, completed / seconds, p99, context.containsBean("virtualOnboardingExecutor"));
+        } finally {
+            context.close();
+            broker.destroy();
+        }
+    }
+
+    private record Run(long completed, double employeesPerSecond, double p99Millis, boolean virtualExecutor) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.EmployeePatch;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.service.EmployeeUpdateService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The Flyway migrations applied to H2 in MySQL mode, with Hibernate validating the entities against them
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EmployeeUpdateService.class)
+class SchemaMigrationTest {
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EmployeeUpdateService updateService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void emailIsUnique() {
+        repository.saveAndFlush(new Employee("First", "same@example.com"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.saveAndFlush(new Employee("Second", "same@example.com")));
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() {
+        Employee employee = new Employee("Before", "patch@example.com");
+        employee.setAccountId("ACC-1");
+        Long id = repository.saveAndFlush(employee).getId();
+        entityManager.clear();
+
+        EmployeePatch patch = new EmployeePatch();
+        patch.setName("After");
+        updateService.patch(id, patch);
+        entityManager.flush();
+        entityManager.clear();
+
+        Employee patched = repository.findById(id).orElseThrow();
+        assertEquals("After", patched.getName());
+        assertEquals("patch@example.com", patched.getEmail());
+        assertEquals("ACC-1", patched.getAccountId());
+        assertNull(updateService.patch(id + 1000, patch));
+    }
+
+    @Test
+    void outboxPayloadIsNotCutOff() {
+        String payload = "{\"name\":\"" + "x".repeat(100_000) + "\"}";
+        Long id = outboxEventRepository.saveAndFlush(new OutboxEvent(1L, payload)).getId();
+        entityManager.clear();
+
+        assertEquals(payload, outboxEventRepository.findById(id).orElseThrow().getPayload());
+    }
+
+    @Test
+    void databaseFromBeforeMigrationsIsBaselinedAndUpgraded() {
+        // The schema ddl-auto created from the original entities, holding AUTO_INCREMENT employee ids
+        // and without migration history
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table flyway_schema_history");
+        jdbcTemplate.update("insert into employee (name, email, welcome_pack_issued) "
+                + "values ('Legacy', 'legacy@example.com', false)");
+        jdbcTemplate.update("insert into employee (id, name, email, welcome_pack_issued) "
+                + "values (120, 'Legacy Two', 'legacy2@example.com', false)");
+        jdbcTemplate.update("insert into laptop_inventory (serial_number, assigned) values ('LAP-LEGACY', false)");
+
+        // As the application starts on it
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        // The pooled optimizer hands out the 50 ids up to next_val: 121 to 170
+        assertEquals(170L, jdbcTemplate.queryForObject("select next_val from employee_seq", Long.class));
+        // Available to LaptopAllocator: unassigned and never reserved
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from laptop_inventory where assigned = false "
+                + "and reserved_by is null and reserved_at is null", Integer.class));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.serialization;
+
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Round trips through the binary codec and reading JSON and binary through one deserializer
+class EmployeeBinaryCodecTest {
+    private final EmployeeDeserializer deserializer = new EmployeeDeserializer();
+
+    @Test
+    void roundTripsEveryField() {
+        Employee employee = new Employee("Zoë Ünicode", "zoe@example.com");
+        employee.setId(9_007_199_254_740_993L);
+        employee.setAccountId("ACC-1");
+        employee.setLaptopSerialNumber("LAP-0001");
+        employee.setStaffPassId("PASS-1");
+        employee.setWelcomePackIssued(true);
+        employee.setOnboardingCompletedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6));
+
+        Employee decoded = deserializer.deserialize("new-employees", new EmployeeBinarySerializer()
+                .serialize("new-employees", employee));
+
+        assertEquals(employee.getId(), decoded.getId());
+        assertEquals(employee.getName(), decoded.getName());
+        assertEquals(employee.getEmail(), decoded.getEmail());
+        assertEquals(employee.getAccountId(), decoded.getAccountId());
+        assertEquals(employee.getLaptopSerialNumber(), decoded.getLaptopSerialNumber());
+        assertEquals(employee.getStaffPassId(), decoded.getStaffPassId());
+        assertTrue(decoded.isWelcomePackIssued());
+        assertEquals(employee.getOnboardingCompletedAt(), decoded.getOnboardingCompletedAt());
+        assertEquals("PENDING", decoded.getOnboardingStatus());
+    }
+
+    @Test
+    void keepsAbsentFieldsNull() {
+        Employee decoded = EmployeeBinaryCodec.decode(EmployeeBinaryCodec.encode(new Employee()));
+
+        assertNull(decoded.getId());
+        assertNull(decoded.getName());
+        assertNull(decoded.getOnboardingCompletedAt());
+        assertFalse(decoded.isWelcomePackIssued());
+    }
+
+    @Test
+    void readsJsonWrittenBeforeTheMigration() {
+        Employee employee = new Employee("Json", "json@example.com");
+        employee.setId(42L);
+        RecordHeaders headers = new RecordHeaders();
+        byte[] json = new JsonSerializer<Employee>().serialize("new-employees", headers, employee);
+
+        Employee decoded = deserializer.deserialize("new-employees", headers, json);
+
+        assertEquals(42L, decoded.getId());
+        assertEquals("json@example.com", decoded.getEmail());
+        assertTrue(EmployeeBinaryCodec.encode(employee).length < json.length / 2);
+    }
+
+    @Test
+    void rejectsTruncatedMessages() {
+        Employee employee = new Employee("Truncated", "truncated@example.com");
+        byte[] encoded = EmployeeBinaryCodec.encode(employee);
+
+        assertThrows(SerializationException.class,
+                () -> EmployeeBinaryCodec.decode(Arrays.copyOf(encoded, encoded.length - 4)));
+    }
+}
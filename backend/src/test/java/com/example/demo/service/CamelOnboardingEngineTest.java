@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import org.apache.camel.CamelContext;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.example.demo.service.TestEmployees.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The Camel engine honours the same contract as the graph engine: dependency order, first failure
+// rethrown, completed steps skipped; plus the per-system circuit breaker and step timeout
+class CamelOnboardingEngineTest {
+    private static final int WINDOW = 4;
+
+    private CamelContext context;
+    private ThreadPoolTaskExecutor executor;
+    private CamelOnboardingEngine engine;
+    private final Map<OnboardingTask, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        context = new DefaultCamelContext();
+        engine = new CamelOnboardingEngine(context.createProducerTemplate(), executor, Duration.ofMillis(200),
+                16, 50, WINDOW, Duration.ofSeconds(60));
+        context.addRoutes(engine);
+        context.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.stop();
+        executor.shutdown();
+    }
+
+    @Test
+    void runsAccountFirstThenTheIndependentSteps() {
+        Employee employee = employee(1L, "Camel");
+        engine.run(employee, steps(Map.of()), Set.of(), new Recorder());
+
+        assertEquals("started CREATE_ACCOUNT", transitions.get(0));
+        assertEquals("completed CREATE_ACCOUNT", transitions.get(1));
+        assertEquals(2 * OnboardingTask.values().length, transitions.size());
+        assertEquals("CREATE_ACCOUNT", employee.getAccountId());
+        assertTrue(employee.isWelcomePackIssued());
+    }
+
+    @Test
+    void rethrowsTheFirstFailureAndSkipsCompletedSteps() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> engine.run(employee(1L, "Camel"),
+                steps(Map.of(OnboardingTask.ISSUE_LAPTOP, "Laptop assignment failed",
+                        OnboardingTask.ISSUE_WELCOME_PACK, "Welcome pack assignment failed")),
+                EnumSet.of(OnboardingTask.CREATE_ACCOUNT), new Recorder()));
+
+        assertEquals("Laptop assignment failed", error.getMessage());
+        assertFalse(calls.containsKey(OnboardingTask.CREATE_ACCOUNT));
+        assertEquals(1, calls.get(OnboardingTask.ISSUE_STAFF_PASS).get());
+        assertTrue(transitions.contains("failed ISSUE_LAPTOP: Laptop assignment failed"));
+        assertTrue(transitions.contains("completed ISSUE_STAFF_PASS"));
+    }
+
+    @Test
+    void openCircuitFailsTheStepWithoutCallingTheSystem() {
+        Map<OnboardingTask, Consumer<Employee>> steps = steps(Map.of(OnboardingTask.ISSUE_STAFF_PASS, "Pass system down"));
+        for (int i = 0; i < WINDOW; i++) {
+            assertThrows(RuntimeException.class, () -> engine.run(employee(1L, "Camel"), steps, Set.of(), new Recorder()));
+        }
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> engine.run(employee(1L, "Camel"), steps, Set.of(), new Recorder()));
+
+        assertTrue(error.getMessage().startsWith("ISSUE_STAFF_PASS not attempted"), error.getMessage());
+        assertEquals(WINDOW, calls.get(OnboardingTask.ISSUE_STAFF_PASS).get());
+        // The other systems have their own circuit breakers
+        assertEquals(WINDOW + 1, calls.get(OnboardingTask.ISSUE_LAPTOP).get());
+    }
+
+    @Test
+    void slowStepTimesOut() {
+        Map<OnboardingTask, Consumer<Employee>> steps = steps(Map.of());
+        steps.put(OnboardingTask.ISSUE_WELCOME_PACK, employee -> sleep(1_000));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> engine.run(employee(1L, "Camel"), steps, Set.of(), new Recorder()));
+
+        assertEquals("ISSUE_WELCOME_PACK timed out after 200 ms", error.getMessage());
+    }
+
+    // Every step records its result on the employee; the steps named in failures throw instead
+    private Map<OnboardingTask, Consumer<Employee>> steps(Map<OnboardingTask, String> failures) {
+        Map<OnboardingTask, Consumer<Employee>> steps = new EnumMap<>(OnboardingTask.class);
+        for (OnboardingTask task : OnboardingTask.values()) {
+            steps.put(task, employee -> {
+                calls.computeIfAbsent(task, t -> new AtomicInteger()).incrementAndGet();
+                if (failures.containsKey(task)) {
+                    throw new RuntimeException(failures.get(task));
+                }
+                task.applyResult(employee, task == OnboardingTask.ISSUE_WELCOME_PACK ? "true" : task.name());
+            });
+        }
+        return steps;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private class Recorder implements OnboardingStepListener {
+        @Override
+        public void stepStarted(Employee employee, OnboardingTask task) {
+            transitions.add("started " + task);
+        }
+
+        @Override
+        public void stepCompleted(Employee employee, OnboardingTask task, String result) {
+            transitions.add("completed " + task);
+        }
+
+        @Override
+        public void stepFailed(Employee employee, OnboardingTask task, Throwable error) {
+            transitions.add("failed " + task + ": " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.example.demo.service.TestEmployees.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Each event is sent once and its acknowledgement, or failure, counted
+class EmployeeEventPublisherTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsAcknowledgedAndFailedSends() {
+        KafkaTemplate<String, Employee> template = mock(KafkaTemplate.class);
+        when(template.send(anyString(), anyString(), any(Employee.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        EmployeeEventPublisher publisher = new EmployeeEventPublisher(template);
+
+        publisher.publish(employee(7L, "Publisher")).join();
+        CompletableFuture<?> failed = publisher.publish(employee(7L, "Publisher"));
+
+        assertThrows(CompletionException.class, failed::join);
+        verify(template, times(2)).send(anyString(), anyString(), any(Employee.class));
+        assertEquals(1, publisher.getPublished());
+        assertEquals(1, publisher.getFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendThatFailsBeforeReturningCompletesExceptionally() {
+        KafkaTemplate<String, Employee> template = mock(KafkaTemplate.class);
+        // The producer throws once max.block.ms passes without topic metadata
+        when(template.send(anyString(), anyString(), any(Employee.class)))
+                .thenThrow(new TimeoutException("Topic new-employees not present in metadata after 5000 ms."));
+        EmployeeEventPublisher publisher = new EmployeeEventPublisher(template);
+
+        CompletableFuture<?> outcome = publisher.publish(employee(7L, "Publisher"));
+
+        assertThrows(CompletionException.class, outcome::join);
+        assertEquals(1, publisher.getFailed());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BulkIngestResponse;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// Compares rows/sec of the bulk ingestion path with one save + send per employee
+@DataJpaTest(showSql = false, properties = "logging.level.org.hibernate.SQL=INFO")
+@Import({EmployeeIngestionService.class, OutboxService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("load")
+class EmployeeIngestionLoadTest {
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private EmployeeIngestionService ingestionService;
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockitoBean
+    private KafkaTemplate<String, Employee> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        when(kafkaTemplate.send(anyString(), anyString(), any(Employee.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void bulkIngestionOutpacesSingleRowPath() {
+        List<Employee> singles = employees("single");
+        long start = System.nanoTime();
+        for (Employee employee : singles) {
+            Employee saved = repository.save(employee);
+            kafkaTemplate.send("new-employees", String.valueOf(saved.getId()), saved);
+        }
+        double singleRowsPerSec = rowsPerSecond(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        BulkIngestResponse response = ingestionService.ingest(employees("bulk"));
+        double bulkRowsPerSec = rowsPerSecond(System.nanoTime() - start);
+
+        System.out.printf("Single-row path: %.0f rows/sec, bulk path: %.0f rows/sec (%.1fx)%n",
+                singleRowsPerSec, bulkRowsPerSec, bulkRowsPerSec / singleRowsPerSec);
+        assertEquals(ROWS, response.getCreated());
+        assertEquals(2L * ROWS, repository.count());
+    }
+
+    @Test
+    void rejectsInvalidRowsWithoutFailingTheRest() {
+        List<Employee> employees = employees("mixed").subList(0, 3);
+        employees.get(1).setEmail(" ");
+
+        BulkIngestResponse response = ingestionService.ingest(employees);
+
+        assertEquals(2, response.getCreated());
+        assertEquals("REJECTED", response.getResults().get(1).getStatus());
+        assertEquals(2L, repository.count());
+        assertEquals(2L, outboxEventRepository.count());
+    }
+
+    private static List<Employee> employees(String prefix) {
+        List<Employee> employees = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            employees.add(new Employee(prefix + " " + i, prefix + i + "@example.com"));
+        }
+        return employees;
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CacheConfig;
+import com.example.demo.dto.OnboardingDetailsDTO;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dashboard-style polling of a few hundred employees, with and without the lookup cache
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.stat=WARN",
+        "spring.cache.cache-names=employees,onboardingDetails",
+        "spring.cache.caffeine.spec=maximumSize=10000,expireAfterWrite=60s,recordStats"
+})
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({EmployeeLookupService.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeLookupCacheLoadTest {
+    private static final int EMPLOYEES = 200;
+    private static final int LOOKUPS = 20_000;
+
+    @Autowired
+    private EmployeeLookupService lookupService;
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Tag("load")
+    void cacheCutsQueriesAndTailLatency() {
+        List<Long> ids = seed();
+
+        Result uncached = poll(ids, id -> repository.findById(id).map(OnboardingDetailsDTO::from).orElse(null),
+                id -> repository.findById(id).orElse(null));
+        Result cached = poll(ids, lookupService::findOnboardingDetails, lookupService::findEmployee);
+
+        System.out.printf("Without cache: p99 %.1f us, %d queries; with cache: p99 %.1f us, %d queries%n",
+                uncached.p99Micros, uncached.queries, cached.p99Micros, cached.queries);
+        assertTrue(cached.queries <= 2L * EMPLOYEES, "Only misses should reach the database");
+        assertTrue(cached.p99Micros < uncached.p99Micros);
+    }
+
+    @Test
+    void evictedEntriesAreReloaded() {
+        Employee employee = repository.save(new Employee("Evicted", "evicted@example.com"));
+        assertEquals("PENDING", lookupService.findOnboardingDetails(employee.getId()).getStatus());
+
+        repository.updateOnboardingStatus(employee.getId(), "COMPLETED");
+        assertEquals("PENDING", lookupService.findOnboardingDetails(employee.getId()).getStatus());
+        lookupService.onEmployeeChanged(new EmployeeChangedEvent(List.of(employee.getId())));
+        assertEquals("COMPLETED", lookupService.findOnboardingDetails(employee.getId()).getStatus());
+
+        repository.deleteById(employee.getId());
+        lookupService.evict(employee.getId());
+        assertNull(lookupService.findEmployee(employee.getId()));
+    }
+
+    private List<Long> seed() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee("Polled " + i, "polled" + i + "@example.com"));
+        }
+        return repository.saveAll(employees).stream().map(Employee::getId).toList();
+    }
+
+    // Alternates onboarding-details and employee lookups, as the dashboard does
+    private Result poll(List<Long> ids, LongFunction<Object> details, LongFunction<Object> employee) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Random random = new Random(42);
+        long[] nanos = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            long id = ids.get(random.nextInt(ids.size()));
+            long start = System.nanoTime();
+            Object result = (i % 2 == 0 ? details : employee).apply(id);
+            nanos[i] = System.nanoTime() - start;
+            assertTrue(result != null);
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos[(int) (LOOKUPS * 0.99)] / 1_000.0, statistics.getPrepareStatementCount());
+    }
+
+    private record Result(double p99Micros, long queries) {
+    }
+}
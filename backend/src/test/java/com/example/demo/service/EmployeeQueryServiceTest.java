@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EmployeePage;
+import com.example.demo.dto.EmployeeSummary;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keyset pages, the limit clamp, the summary projection and the NDJSON export
+@DataJpaTest(showSql = false, properties = {"employees.page.max-size=5", "employees.export.page-size=2"})
+@Import({EmployeeQueryService.class, JacksonAutoConfiguration.class})
+class EmployeeQueryServiceTest {
+
+    @Autowired
+    private EmployeeQueryService queryService;
+
+    @Autowired
+    private EmployeeRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 7; i++) {
+            Employee employee = new Employee("Paged " + i, "paged" + i + "@example.com");
+            employee.setOnboardingStatus(i % 2 == 0 ? "COMPLETED" : "FAILED");
+            employee.setAccountId("ACC-" + i);
+            ids.add(repository.save(employee).getId());
+        }
+    }
+
+    @Test
+    void cursorWalksEveryEmployeeOnceInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        EmployeePage<?> page;
+        do {
+            page = queryService.findPage(cursor, 3, null, false);
+            page.getItems().forEach(item -> seen.add(((Employee) item).getId()));
+            cursor = page.getNextCursor();
+        } while (page.hasNext());
+
+        assertEquals(ids, seen);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void limitIsClampedToOneAndTheMaximumPageSize() {
+        EmployeePage<?> largest = queryService.findPage(null, 50, null, false);
+        assertEquals(5, largest.getItems().size());
+        assertEquals(ids.get(4), largest.getNextCursor());
+
+        EmployeePage<?> smallest = queryService.findPage(null, 0, null, false);
+        assertEquals(1, smallest.getItems().size());
+        assertEquals(ids.get(0), smallest.getNextCursor());
+    }
+
+    @Test
+    void summaryPagesProjectTheFilteredStatus() {
+        EmployeePage<?> page = queryService.findPage(null, 5, "FAILED", true);
+
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(5)),
+                page.getItems().stream().map(item -> ((EmployeeSummary) item).getId()).toList());
+        page.getItems().forEach(item -> {
+            assertInstanceOf(EmployeeSummary.class, item);
+            assertEquals("FAILED", ((EmployeeSummary) item).getOnboardingStatus());
+        });
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void exportWritesOneJsonLinePerEmployeeAcrossPages() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        queryService.export(output, null, true);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ids.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = objectMapper.readTree(lines[i]);
+            assertEquals(ids.get(i).longValue(), line.get("id").asLong());
+            assertEquals("paged" + i + "@example.com", line.get("email").asText());
+            // The summary view leaves the onboarding columns out
+            assertFalse(line.has("accountId"));
+        }
+
+        output.reset();
+        queryService.export(output, "COMPLETED", false);
+        String[] completed = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, completed.length);
+        assertTrue(objectMapper.readTree(completed[0]).has("accountId"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static com.example.demo.service.TestEmployees.employee;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The step timeout runs from when a step starts, and a step that times out is stopped
+class GraphOnboardingEngineTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+
+    private ThreadPoolTaskExecutor executor;
+    private GraphOnboardingEngine engine;
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        engine = new GraphOnboardingEngine(executor, TIMEOUT, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void waitingForDependenciesDoesNotCountAgainstTheTimeout() {
+        Map<OnboardingTask, Consumer<Employee>> steps = steps();
+        // Together longer than the timeout, each well within it
+        steps.put(OnboardingTask.CREATE_ACCOUNT, slow(OnboardingTask.CREATE_ACCOUNT, 200));
+        steps.put(OnboardingTask.ISSUE_LAPTOP, slow(OnboardingTask.ISSUE_LAPTOP, 200));
+        Employee employee = employee(1L, "Graph");
+
+        engine.run(employee, steps, Set.of(), new Recorder());
+
+        assertEquals("ISSUE_LAPTOP", employee.getLaptopSerialNumber());
+        assertEquals(2 * OnboardingTask.values().length, transitions.size());
+    }
+
+    @Test
+    void timedOutStepIsInterruptedAndRecordsNothing() throws InterruptedException {
+        Map<OnboardingTask, Consumer<Employee>> steps = steps();
+        steps.put(OnboardingTask.ISSUE_WELCOME_PACK, employee -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted");
+            }
+            employee.setWelcomePackIssued(true);
+        });
+        Employee employee = employee(1L, "Graph");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> engine.run(employee, steps, Set.of(), new Recorder()));
+        Thread.sleep(1_000);
+
+        assertEquals("ISSUE_WELCOME_PACK timed out after 300 ms", error.getMessage());
+        assertFalse(employee.isWelcomePackIssued());
+        assertTrue(transitions.contains("failed ISSUE_WELCOME_PACK: ISSUE_WELCOME_PACK timed out after 300 ms"));
+        assertFalse(transitions.contains("completed ISSUE_WELCOME_PACK"));
+        assertEquals(1, transitions.stream().filter(t -> t.startsWith("failed")).count());
+        assertNotNull(employee.getStaffPassId());
+    }
+
+    private static Map<OnboardingTask, Consumer<Employee>> steps() {
+        Map<OnboardingTask, Consumer<Employee>> steps = new EnumMap<>(OnboardingTask.class);
+        for (OnboardingTask task : OnboardingTask.values()) {
+            steps.put(task, slow(task, 0));
+        }
+        return steps;
+    }
+
+    private static Consumer<Employee> slow(OnboardingTask task, long millis) {
+        return employee -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("interrupted");
+            }
+            task.applyResult(employee, task == OnboardingTask.ISSUE_WELCOME_PACK ? "true" : task.name());
+        };
+    }
+
+    private class Recorder implements OnboardingStepListener {
+        @Override
+        public void stepStarted(Employee employee, OnboardingTask task) {
+            transitions.add("started " + task);
+        }
+
+        @Override
+        public void stepCompleted(Employee employee, OnboardingTask task, String result) {
+            transitions.add("completed " + task);
+        }
+
+        @Override
+        public void stepFailed(Employee employee, OnboardingTask task, Throwable error) {
+            transitions.add("failed " + task + ": " + error.getMessage());
+        }
+    }
+}
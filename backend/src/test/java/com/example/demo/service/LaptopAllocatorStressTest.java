@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.repository.LaptopInventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// N threads on two allocator "nodes" draw from one inventory; every laptop must go to exactly one employee
+@DataJpaTest(showSql = false, properties = "logging.level.org.hibernate.SQL=INFO")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LaptopAllocatorStressTest {
+    private static final int LAPTOPS = 2_000;
+    private static final int THREADS = 8;
+    private static final int ALLOCATIONS_PER_THREAD = 200;
+
+    @Autowired
+    private LaptopInventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    @Tag("load")
+    void concurrentAllocationNeverHandsOutALaptopTwice() throws Exception {
+        List<LaptopInventory> laptops = new ArrayList<>(LAPTOPS);
+        for (int i = 0; i < LAPTOPS; i++) {
+            laptops.add(new LaptopInventory(String.format("LAP-%05d", i)));
+        }
+        inventoryRepository.saveAll(laptops);
+
+        LaptopAllocator[] nodes = {
+                new LaptopAllocator(inventoryRepository, transactionTemplate, "node-a", 20, Duration.ofHours(1)),
+                new LaptopAllocator(inventoryRepository, transactionTemplate, "node-b", 20, Duration.ofHours(1))
+        };
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        AtomicLong nextEmployeeId = new AtomicLong(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            LaptopAllocator allocator = nodes[t % nodes.length];
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < ALLOCATIONS_PER_THREAD; i++) {
+                    issued.add(allocator.allocate(nextEmployeeId.getAndIncrement()));
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        pool.shutdown();
+
+        int allocations = THREADS * ALLOCATIONS_PER_THREAD;
+        System.out.printf("%d allocations on %d threads: %.0f allocations/sec, %d duplicates%n",
+                allocations, THREADS, allocations / seconds, allocations - issued.size());
+        assertEquals(allocations, issued.size());
+        assertEquals(LAPTOPS - allocations, inventoryRepository.countByAssignedFalse());
+    }
+
+    @Test
+    void expiredReservationsOfAGoneNodeAreClaimedAgainAndShutdownReleasesTheRest() {
+        List<LaptopInventory> laptops = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            LaptopInventory laptop = new LaptopInventory(String.format("LAP-STALE-%d", i));
+            // Reserved by a container that never came back, two of them past the TTL
+            laptop.setReservedBy("gone-node");
+            laptop.setReservedAt(LocalDateTime.now().minusHours(i < 2 ? 2 : 0));
+            laptops.add(laptop);
+        }
+        inventoryRepository.saveAll(laptops);
+
+        LaptopAllocator allocator = new LaptopAllocator(inventoryRepository, transactionTemplate, "node-c", 20,
+                Duration.ofHours(1));
+        assertEquals("LAP-STALE-0", allocator.allocate(9_001L));
+        assertEquals("LAP-STALE-1", allocator.allocate(9_002L));
+        assertThrows(RuntimeException.class, () -> allocator.allocate(9_003L));
+
+        inventoryRepository.save(new LaptopInventory("LAP-STALE-4"));
+        assertEquals("LAP-STALE-4", allocator.allocate(9_004L));
+        inventoryRepository.save(new LaptopInventory("LAP-STALE-5"));
+        inventoryRepository.save(new LaptopInventory("LAP-STALE-6"));
+        allocator.allocate(9_005L);
+
+        allocator.destroy();
+        LaptopInventory released = inventoryRepository.findById("LAP-STALE-6").orElseThrow();
+        assertNull(released.getReservedBy());
+        assertNull(released.getReservedAt());
+        assertEquals("gone-node", inventoryRepository.findById("LAP-STALE-2").orElseThrow().getReservedBy());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.dto.HourlyOnboardingStats;
+import com.example.demo.dto.OnboardingProgressEvent;
+import com.example.demo.entity.Employee;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The analytics topology against an in-process driver: status counts follow each employee's latest
+// status, and the hourly and per-step aggregates count what was piped in this hour
+class OnboardingAnalyticsTopologyTest {
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, Employee> newEmployees;
+    private TestInputTopic<String, OnboardingProgressEvent> progress;
+    private OnboardingAnalyticsService analytics;
+
+    @BeforeEach
+    void setUp() {
+        StreamsBuilder builder = new StreamsBuilder();
+        OnboardingAnalyticsTopology.build(builder, Duration.ofDays(7));
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "onboarding-analytics-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(builder.build(), config);
+
+        newEmployees = driver.createInputTopic(KafkaConfig.NEW_EMPLOYEES_TOPIC,
+                new StringSerializer(), new JsonSerializer<>());
+        progress = driver.createInputTopic(KafkaConfig.ONBOARDING_PROGRESS_TOPIC,
+                new StringSerializer(), new JsonSerializer<OnboardingProgressEvent>().noTypeInfo());
+        analytics = new OnboardingAnalyticsService(driver::getKeyValueStore, driver::getWindowStore, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    void statusCountsFollowTheLatestStatus() {
+        added(1L);
+        added(2L);
+        added(3L);
+        assertEquals(Map.of("PENDING", 3L), analytics.getStatusCounts());
+
+        overall(1L, "IN_PROGRESS");
+        overall(1L, "COMPLETED");
+        overall(2L, "FAILED");
+        // A redelivered new-employees record leaves employee 1 completed
+        added(1L);
+
+        assertEquals(Map.of("PENDING", 1L, "COMPLETED", 1L, "FAILED", 1L), analytics.getStatusCounts());
+    }
+
+    @Test
+    void hourlyStatsCountAddedAndFinishedRuns() {
+        for (long id = 1; id <= 4; id++) {
+            added(id);
+        }
+        overall(1L, "COMPLETED");
+        overall(2L, "COMPLETED");
+        overall(3L, "COMPLETED");
+        overall(4L, "FAILED");
+
+        List<HourlyOnboardingStats> hours = analytics.getHourlyStats(3);
+        assertEquals(3, hours.size());
+        HourlyOnboardingStats current = hours.get(hours.size() - 1);
+        assertEquals(4, current.getAdded());
+        assertEquals(3, current.getCompleted());
+        assertEquals(1, current.getFailed());
+        assertEquals(0.75, current.getCompletionRate());
+        assertEquals(null, hours.get(0).getCompletionRate());
+    }
+
+    @Test
+    void stepFailuresAreCountedPerStep() {
+        step(1L, OnboardingTask.ISSUE_LAPTOP, "FAILED");
+        step(2L, OnboardingTask.ISSUE_LAPTOP, "FAILED");
+        step(2L, OnboardingTask.CREATE_ACCOUNT, "COMPLETED");
+        step(3L, OnboardingTask.ISSUE_STAFF_PASS, "FAILED");
+
+        Map<String, Long> failures = analytics.getStepFailures(24);
+        assertEquals(2L, failures.get(OnboardingTask.ISSUE_LAPTOP.name()));
+        assertEquals(1L, failures.get(OnboardingTask.ISSUE_STAFF_PASS.name()));
+        assertEquals(0L, failures.get(OnboardingTask.CREATE_ACCOUNT.name()));
+    }
+
+    private void added(Long id) {
+        Employee employee = new Employee("Employee " + id, "employee" + id + "@example.com");
+        employee.setId(id);
+        newEmployees.pipeInput(String.valueOf(id), employee, Instant.now());
+    }
+
+    private void overall(Long id, String status) {
+        progress.pipeInput(String.valueOf(id), OnboardingProgressEvent.overall(id, status), Instant.now());
+    }
+
+    private void step(Long id, OnboardingTask task, String status) {
+        progress.pipeInput(String.valueOf(id), new OnboardingProgressEvent(id, task.name(), status, null), Instant.now());
+    }
+}
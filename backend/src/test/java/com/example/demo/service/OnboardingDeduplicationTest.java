@@ -0,0 +1,274 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.entity.OnboardingStep;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.LaptopInventoryRepository;
+import com.example.demo.repository.OnboardingStepRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Replays new-employees with every record delivered several times, across two nodes and a rebalance,
+// races the same employees on both nodes, and redelivers employees whose run died holding the claim:
+// each employee is onboarded exactly once
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.com.example.demo=WARN"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OnboardingDeduplicationTest {
+    private static final int EMPLOYEES = 200;
+    private static final int COPIES = 5;
+    private static final int CONSUMERS = 4;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OnboardingStepRepository stepRepository;
+
+    @Autowired
+    private LaptopInventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @Tag("load")
+    void duplicatedReplayOnboardsEveryEmployeeOnce() throws Exception {
+        List<LaptopInventory> laptops = new ArrayList<>();
+        for (int i = 0; i < 3 * EMPLOYEES + 20; i++) {
+            laptops.add(new LaptopInventory(String.format("LAP-DEDUP-%04d", i)));
+        }
+        inventoryRepository.saveAll(laptops);
+        // Two nodes, each with its own dedup window, laptop block and two consumer threads
+        List<OnboardingService> nodes = List.of(node("dedup-a"), node("dedup-b"));
+
+        // Warm-up, so both timings below are taken on warm code and connections
+        consume(nodes, employees("warmup"), 0);
+
+        List<Employee> unique = employees("unique");
+        long start = System.nanoTime();
+        consume(nodes, unique, 0);
+        long uniqueNanos = System.nanoTime() - start;
+
+        List<Employee> employees = employees("replayed");
+        List<Employee> topic = new ArrayList<>();
+        for (int i = 0; i < COPIES; i++) {
+            topic.addAll(employees);
+        }
+        Collections.shuffle(topic, new Random(42));
+        start = System.nanoTime();
+        consume(nodes, topic.subList(0, topic.size() / 2), 0);
+        // Rebalance: every partition moves to the next consumer, half of them to the other node
+        consume(nodes, topic.subList(topic.size() / 2, topic.size()), 1);
+        long replayNanos = System.nanoTime() - start;
+
+        double inMemory = duplicates("memory");
+        double inDatabase = duplicates("database");
+        // Five times the records, most of them dropped without a database round trip
+        System.out.printf("Unique: %.0f records/sec; %dx duplicated replay: %.0f records/sec, replay took %.2fx "
+                        + "as long; %.0f duplicates dropped in memory, %.0f by the database claim%n",
+                recordsPerSecond(unique.size(), uniqueNanos), COPIES, recordsPerSecond(topic.size(), replayNanos),
+                (double) replayNanos / uniqueNanos, inMemory, inDatabase);
+
+        List<String> laptopsIssued = new ArrayList<>();
+        for (Employee employee : employees) {
+            Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+            assertEquals("COMPLETED", saved.getOnboardingStatus());
+            laptopsIssued.add(saved.getLaptopSerialNumber());
+            // attempts counts the times a step started: none ran twice
+            List<OnboardingStep> steps = stepRepository.findByEmployeeId(employee.getId());
+            assertEquals(OnboardingTask.values().length, steps.size());
+            steps.forEach(step -> assertEquals(1, step.getAttempts(), step.getStep()));
+        }
+        assertEquals(EMPLOYEES, laptopsIssued.stream().distinct().count());
+        assertEquals(EMPLOYEES * (COPIES - 1), inMemory + inDatabase);
+        assertTrue(inMemory > inDatabase);
+    }
+
+    @Test
+    void sameEmployeeStartedOnBothNodesAtOnceIsClaimedByOne() throws Exception {
+        List<LaptopInventory> laptops = new ArrayList<>();
+        for (int i = 0; i < 2 * EMPLOYEES; i++) {
+            laptops.add(new LaptopInventory(String.format("LAP-RACE-%04d", i)));
+        }
+        inventoryRepository.saveAll(laptops);
+        // Separate dedup windows, so only the database claim stands between the two runs
+        List<OnboardingService> nodes = List.of(node("race-a"), node("race-b"));
+        ExecutorService starters = Executors.newFixedThreadPool(nodes.size());
+        double droppedBefore = duplicates("database");
+
+        for (Employee employee : employees("raced")) {
+            CyclicBarrier barrier = new CyclicBarrier(nodes.size());
+            List<CompletableFuture<Boolean>> runs = nodes.stream()
+                    .map(node -> CompletableFuture.supplyAsync(() -> {
+                        await(barrier);
+                        return node.startOnboarding(copy(employee));
+                    }, starters))
+                    .toList();
+            assertEquals(1, runs.stream().filter(CompletableFuture::join).count(), "winners for " + employee.getId());
+
+            Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+            assertEquals("COMPLETED", saved.getOnboardingStatus());
+            stepRepository.findByEmployeeId(employee.getId())
+                    .forEach(step -> assertEquals(1, step.getAttempts(), step.getStep()));
+        }
+        starters.shutdown();
+
+        assertEquals(EMPLOYEES, duplicates("database") - droppedBefore);
+    }
+
+    @Test
+    void runThatDiedHoldingTheClaimIsResumedByRedeliveryOrTheSweep() throws Exception {
+        List<LaptopInventory> laptops = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES + 40; i++) {
+            laptops.add(new LaptopInventory(String.format("LAP-CRASH-%04d", i)));
+        }
+        inventoryRepository.saveAll(laptops);
+        List<Employee> employees = employees("crashed");
+        // Node crash-a claims every employee and creates its account, then dies before finishing the run
+        OnboardingStateStore crashed = stateStore("crash-a", Duration.ofMinutes(10));
+        for (Employee employee : employees) {
+            crashed.begin(employee);
+            crashed.stepStarted(employee, OnboardingTask.CREATE_ACCOUNT);
+            crashed.stepCompleted(employee, OnboardingTask.CREATE_ACCOUNT, "ACC-CRASHED-" + employee.getId());
+        }
+        List<Employee> redelivered = employees.subList(0, EMPLOYEES / 2);
+        List<Employee> abandoned = employees.subList(EMPLOYEES / 2, EMPLOYEES);
+
+        // While the claim is fresh another node is turned away, but crash-a, restarted, takes its claim back
+        OnboardingService other = node("crash-b");
+        redelivered.forEach(employee -> assertFalse(other.startOnboarding(copy(employee))));
+        OnboardingService restarted = node("crash-a");
+        redelivered.forEach(employee -> assertTrue(restarted.startOnboarding(copy(employee))));
+
+        // crash-a never comes back for the rest: once the claim expires the sweep on crash-c retries them
+        OnboardingStateStore sweeperState = stateStore("crash-c", Duration.ofMillis(200));
+        OnboardingService sweeper = node("crash-c", sweeperState);
+        KeyOrderedExecutor lanes = new KeyOrderedExecutor(2);
+        OnboardingRetryScheduler retryScheduler = new OnboardingRetryScheduler(sweeper,
+                new OnboardingBatchService(sweeper, sweeperState, lanes,
+                        new OnboardingDedupWindow(10_000, Duration.ofMinutes(10))),
+                employeeRepository, sweeperState, null, 5, Duration.ofSeconds(1), 2.0, Duration.ofSeconds(1),
+                EMPLOYEES, 1);
+        Thread.sleep(300);
+        retryScheduler.retryAbandoned();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!sweeperState.findAbandoned(1).isEmpty()
+                || countCompleted(abandoned) < abandoned.size()) {
+            assertTrue(System.nanoTime() < deadline, "abandoned onboardings not retried");
+            Thread.sleep(50);
+        }
+        retryScheduler.destroy();
+        lanes.destroy();
+
+        for (Employee employee : employees) {
+            Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+            assertEquals("COMPLETED", saved.getOnboardingStatus());
+            // Resumed after the account the dead run created
+            assertEquals("ACC-CRASHED-" + employee.getId(), saved.getAccountId());
+            stepRepository.findByEmployeeId(employee.getId())
+                    .forEach(step -> assertEquals(1, step.getAttempts(), step.getStep()));
+        }
+    }
+
+    private long countCompleted(List<Employee> employees) {
+        return employeeRepository.findAllById(employees.stream().map(Employee::getId).toList()).stream()
+                .filter(employee -> "COMPLETED".equals(employee.getOnboardingStatus()))
+                .count();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // Records are partitioned by employee id over the consumers, which take their partitions in order
+    private static void consume(List<OnboardingService> nodes, List<Employee> records, int shift) throws Exception {
+        List<List<Employee>> partitions = new ArrayList<>();
+        for (int i = 0; i < CONSUMERS; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Employee record : records) {
+            partitions.get((int) ((record.getId() + shift) % CONSUMERS)).add(copy(record));
+        }
+        ExecutorService consumers = Executors.newFixedThreadPool(CONSUMERS);
+        List<CompletableFuture<Void>> polls = new ArrayList<>();
+        for (int i = 0; i < CONSUMERS; i++) {
+            OnboardingService node = nodes.get(i * nodes.size() / CONSUMERS);
+            List<Employee> partition = partitions.get(i);
+            polls.add(CompletableFuture.runAsync(() -> partition.forEach(node::startOnboarding), consumers));
+        }
+        CompletableFuture.allOf(polls.toArray(CompletableFuture[]::new)).get();
+        consumers.shutdown();
+    }
+
+    // Each delivery deserializes its own copy of the employee
+    private static Employee copy(Employee record) {
+        Employee employee = new Employee(record.getName(), record.getEmail());
+        employee.setId(record.getId());
+        return employee;
+    }
+
+    private List<Employee> employees(String prefix) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(prefix + " " + i, prefix + i + "@dedup.example.com"));
+        }
+        return employeeRepository.saveAll(employees);
+    }
+
+    private OnboardingService node(String nodeId) {
+        return node(nodeId, stateStore(nodeId, Duration.ofMinutes(10)));
+    }
+
+    private OnboardingStateStore stateStore(String nodeId, Duration claimTimeout) {
+        return new OnboardingStateStore(stepRepository, employeeRepository, event -> {}, claimTimeout, nodeId);
+    }
+
+    private OnboardingService node(String nodeId, OnboardingStateStore stateStore) {
+        OnboardingEngine engine = new GraphOnboardingEngine(new SyncTaskExecutor(), Duration.ofSeconds(5), true);
+        LaptopAllocator laptopAllocator = new LaptopAllocator(inventoryRepository, transactionTemplate, nodeId, 20,
+                Duration.ofHours(1));
+        return new OnboardingService(employeeRepository, engine, stateStore, laptopAllocator, event -> {},
+                new OnboardingMetrics(meterRegistry), new SnowflakeIdGenerator(nodeId.hashCode() & 1023),
+                new RandomStepSimulation(0.0, Duration.ofMillis(2)),
+                new OnboardingDedupWindow(10_000, Duration.ofMinutes(10)));
+    }
+
+    private double duplicates(String check) {
+        return meterRegistry.get("onboarding.duplicates").tag("check", check).counter().count();
+    }
+
+    private static double recordsPerSecond(int records, long nanos) {
+        return records * 1_000_000_000.0 / nanos;
+    }
+}
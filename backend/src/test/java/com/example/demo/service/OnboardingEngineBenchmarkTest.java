@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// End-to-end onboarding time with simulated step latency, sequential versus dependency-graph execution
+@Tag("load")
+class OnboardingEngineBenchmarkTest {
+    private static final Duration STEP_LATENCY = Duration.ofMillis(50);
+    private static final int EMPLOYEES = 20;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setThreadNamePrefix("onboarding-test-");
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void parallelEngineShortensOnboarding() {
+        double sequentialMs = averageOnboardingMillis(service(false, 0.0));
+        double parallelMs = averageOnboardingMillis(service(true, 0.0));
+
+        System.out.printf("Average onboarding with %d ms steps: sequential %.1f ms, parallel %.1f ms%n",
+                STEP_LATENCY.toMillis(), sequentialMs, parallelMs);
+        // Sequential pays four step latencies, parallel pays two (account, then the rest together)
+        assertTrue(sequentialMs >= 4 * STEP_LATENCY.toMillis());
+        assertTrue(parallelMs < 3 * STEP_LATENCY.toMillis());
+    }
+
+    @Test
+    void failedAccountSkipsDependentSteps() {
+        OnboardingService service = service(true, 1.0);
+        Employee employee = new Employee("Failing", "failing@example.com");
+        employee.setId(1L);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.startOnboarding(employee));
+
+        assertEquals("Onboarding failed: Account creation failed", e.getMessage());
+        assertEquals("FAILED", employee.getOnboardingStatus());
+        assertEquals(null, employee.getLaptopSerialNumber());
+    }
+
+    private OnboardingService service(boolean parallel, double failureRate) {
+        OnboardingEngine engine = new GraphOnboardingEngine(executor, Duration.ofSeconds(5), parallel);
+        return new OnboardingService(mock(EmployeeRepository.class), engine, mock(OnboardingStateStore.class),
+                mock(LaptopAllocator.class), event -> {}, new OnboardingMetrics(new SimpleMeterRegistry()),
+                new SnowflakeIdGenerator(0), new RandomStepSimulation(failureRate, STEP_LATENCY),
+                new OnboardingDedupWindow(1_000, Duration.ofMinutes(1)));
+    }
+
+    private static double averageOnboardingMillis(OnboardingService service) {
+        long start = System.nanoTime();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee("Employee " + i, "employee" + i + "@example.com");
+            employee.setId((long) i + 1);
+            service.startOnboarding(employee);
+            assertNotNull(employee.getStaffPassId());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / EMPLOYEES;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OnboardingProgressEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fan-out, filtering, the bounded buffer that drops subscribers that cannot keep up, the send
+// timeout that drops subscribers whose connection stalls and the cap on dispatch threads
+class OnboardingProgressBroadcasterTest {
+    private final OnboardingProgressBroadcaster broadcaster =
+            new OnboardingProgressBroadcaster(4, Duration.ofMinutes(1), 2, 64, Duration.ofSeconds(30));
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.destroy();
+    }
+
+    @Test
+    void deliversMatchingEventsToEverySubscriber() throws Exception {
+        RecordingEmitter all = new RecordingEmitter(3);
+        RecordingEmitter employee = new RecordingEmitter(2);
+        RecordingEmitter failures = new RecordingEmitter(1);
+        broadcaster.register(all, Set.of(), Set.of());
+        broadcaster.register(employee, Set.of(1L), Set.of());
+        broadcaster.register(failures, Set.of(), Set.of("FAILED"));
+
+        broadcaster.onProgress(new OnboardingProgressEvent(1L, "CREATE_ACCOUNT", "COMPLETED", "ACC-1"));
+        broadcaster.onProgress(new OnboardingProgressEvent(2L, "ISSUE_LAPTOP", "FAILED", "no laptops"));
+        broadcaster.onProgress(OnboardingProgressEvent.overall(1L, "COMPLETED"));
+
+        assertTrue(all.received.await(5, TimeUnit.SECONDS));
+        assertTrue(employee.received.await(5, TimeUnit.SECONDS));
+        assertTrue(failures.received.await(5, TimeUnit.SECONDS));
+        assertEquals(3, all.sent.size());
+        assertEquals(2, employee.sent.size());
+        assertEquals(1, failures.sent.size());
+    }
+
+    @Test
+    void disconnectsSubscribersThatFallBehind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(1) {
+            @Override
+            public void send(SseEventBuilder builder) {
+                awaitQuietly(release);
+                super.send(builder);
+            }
+        };
+        RecordingEmitter fast = new RecordingEmitter(20);
+        broadcaster.register(slow, Set.of(), Set.of());
+        broadcaster.register(fast, Set.of(), Set.of());
+
+        // The fast subscriber keeps up with every event while the slow one is stuck on its first
+        for (int i = 0; i < 20; i++) {
+            broadcaster.onProgress(OnboardingProgressEvent.overall((long) i, "IN_PROGRESS"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (fast.sent.size() <= i && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+
+        assertTrue(fast.received.await(5, TimeUnit.SECONDS));
+        assertEquals(20, fast.sent.size());
+        assertTrue(slow.completed);
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void stalledWritesNeitherHoldUpOtherSubscribersNorOutliveTheSendTimeout() throws Exception {
+        OnboardingProgressBroadcaster stalling =
+                new OnboardingProgressBroadcaster(4, Duration.ofMinutes(1), 2, 64, Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(2);
+        List<RecordingEmitter> stalled = List.of(new StalledEmitter(interrupted), new StalledEmitter(interrupted));
+        RecordingEmitter fast = new RecordingEmitter(3);
+        try {
+            // As many stalled clients as dispatch threads
+            stalled.forEach(emitter -> stalling.register(emitter, Set.of(), Set.of()));
+            stalling.register(fast, Set.of(), Set.of());
+
+            for (int i = 0; i < 3; i++) {
+                stalling.onProgress(OnboardingProgressEvent.overall((long) i, "IN_PROGRESS"));
+            }
+
+            assertTrue(fast.received.await(5, TimeUnit.SECONDS));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            stalled.forEach(emitter -> assertTrue(emitter.completed));
+            assertEquals(1, stalling.getSubscriberCount());
+        } finally {
+            stalling.destroy();
+        }
+    }
+
+    @Test
+    void subscriberIsDisconnectedWhenEveryDispatchThreadIsTaken() {
+        OnboardingProgressBroadcaster capped =
+                new OnboardingProgressBroadcaster(4, Duration.ofMinutes(1), 1, 2, Duration.ofSeconds(30));
+        CountDownLatch interrupted = new CountDownLatch(2);
+        RecordingEmitter waiting = new RecordingEmitter(1);
+        try {
+            capped.register(new StalledEmitter(interrupted), Set.of(1L), Set.of());
+            capped.register(new StalledEmitter(interrupted), Set.of(1L), Set.of());
+            capped.register(waiting, Set.of(2L), Set.of());
+
+            // Both threads are stuck writing to the stalled clients, so there is none for the next event
+            capped.onProgress(OnboardingProgressEvent.overall(1L, "IN_PROGRESS"));
+            capped.onProgress(OnboardingProgressEvent.overall(2L, "IN_PROGRESS"));
+
+            assertTrue(waiting.completed);
+            assertEquals(0, waiting.sent.size());
+            assertEquals(2, capped.getSubscriberCount());
+        } finally {
+            capped.destroy();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Records what would be written to the connection
+    private static class RecordingEmitter extends SseEmitter {
+        final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        volatile boolean completed;
+
+        RecordingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent.add(builder);
+            received.countDown();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    // A client that stopped reading: the write blocks until the thread is interrupted
+    private static class StalledEmitter extends RecordingEmitter {
+        private final CountDownLatch interrupted;
+
+        StalledEmitter(CountDownLatch interrupted) {
+            super(1);
+            this.interrupted = interrupted;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("Write interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Failed onboardings are retried with capped, jittered backoff and dead-lettered once attempts run out
+class OnboardingRetrySchedulerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deadLettersAfterMaxAttempts() {
+        OnboardingService onboardingService = mock(OnboardingService.class);
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        KafkaTemplate<String, Employee> template = mock(KafkaTemplate.class);
+        Employee employee = failedEmployee();
+        when(employeeRepository.findById(7L)).thenReturn(Optional.of(employee));
+        doThrow(new RuntimeException("Onboarding failed: account system down"))
+                .when(onboardingService).startOnboarding(any(Employee.class));
+        when(template.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        OnboardingRetryScheduler scheduler = scheduler(onboardingService, employeeRepository, template, 3);
+
+        scheduler.onFailure(employee, 1, new RuntimeException("Onboarding failed: account system down"));
+
+        ArgumentCaptor<ProducerRecord<String, Employee>> dead = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(template, timeout(5_000)).send(dead.capture());
+        verify(onboardingService, times(2)).startOnboarding(employee);
+        assertEquals(KafkaConfig.NEW_EMPLOYEES_DLT, dead.getValue().topic());
+        assertEquals("7", dead.getValue().key());
+        assertEquals("3", header(dead.getValue(), OnboardingRetryScheduler.ATTEMPTS_HEADER));
+        assertEquals("Onboarding failed: account system down",
+                header(dead.getValue(), OnboardingRetryScheduler.ERROR_HEADER));
+        assertEquals(2, scheduler.getRetried());
+        assertEquals(1, scheduler.getDeadLettered());
+        scheduler.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void manualRetryReplacesScheduledRetry() {
+        OnboardingService onboardingService = mock(OnboardingService.class);
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        KafkaTemplate<String, Employee> template = mock(KafkaTemplate.class);
+        Employee employee = failedEmployee();
+        when(employeeRepository.findById(7L)).thenReturn(Optional.of(employee));
+        doAnswer(invocation -> {
+            employee.setOnboardingStatus("COMPLETED");
+            return true;
+        }).when(onboardingService).startOnboarding(employee);
+        OnboardingRetryScheduler scheduler = new OnboardingRetryScheduler(onboardingService,
+                mock(OnboardingBatchService.class), employeeRepository, mock(OnboardingStateStore.class), template,
+                5, Duration.ofMinutes(10), 2.0, Duration.ofMinutes(10), 100, 1);
+
+        scheduler.onFailure(employee, 1, new RuntimeException("laptop inventory empty"));
+        assertTrue(scheduler.isRetryScheduled(7L));
+        scheduler.retryNow(7L);
+
+        verify(onboardingService, timeout(5_000)).startOnboarding(employee);
+        assertEquals(0, scheduler.getScheduledCount());
+        verify(template, never()).send(any(ProducerRecord.class));
+        scheduler.destroy();
+    }
+
+    @Test
+    void backoffGrowsWithJitterUpToTheCap() {
+        OnboardingRetryScheduler scheduler = new OnboardingRetryScheduler(mock(OnboardingService.class),
+                mock(OnboardingBatchService.class), mock(EmployeeRepository.class), mock(OnboardingStateStore.class), null,
+                10, Duration.ofSeconds(2), 2.0, Duration.ofSeconds(30), 100, 1);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertBetween(1_000, 2_000, scheduler.backoff(1));
+            assertBetween(4_000, 8_000, scheduler.backoff(3));
+            assertBetween(15_000, 30_000, scheduler.backoff(9));
+        }
+        scheduler.destroy();
+    }
+
+    private static OnboardingRetryScheduler scheduler(OnboardingService onboardingService,
+                                                      EmployeeRepository employeeRepository,
+                                                      KafkaTemplate<String, Employee> template, int maxAttempts) {
+        return new OnboardingRetryScheduler(onboardingService, mock(OnboardingBatchService.class), employeeRepository,
+                mock(OnboardingStateStore.class), template, maxAttempts, Duration.ofMillis(10), 2.0, Duration.ofMillis(100), 100, 1);
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+
+    private static String header(ProducerRecord<String, Employee> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private static Employee failedEmployee() {
+        Employee employee = TestEmployees.employee(7L, "Retry");
+        employee.setOnboardingStatus("FAILED");
+        return employee;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.entity.OnboardingStep;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.LaptopInventoryRepository;
+import com.example.demo.repository.OnboardingStepRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Onboarding state is persisted per step and a new attempt resumes after the completed steps
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OnboardingWorkflowTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OnboardingStepRepository stepRepository;
+
+    @Autowired
+    private LaptopInventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void resumesAfterCompletedSteps() {
+        Employee employee = employeeRepository.save(new Employee("Resumed", "resumed@example.com"));
+        OnboardingStep account = new OnboardingStep(employee.getId(), OnboardingTask.CREATE_ACCOUNT.name());
+        account.setStatus(OnboardingStep.COMPLETED);
+        account.setAttempts(1);
+        account.setResult("ACC-EXISTING");
+        stepRepository.save(account);
+        OnboardingStep laptop = new OnboardingStep(employee.getId(), OnboardingTask.ISSUE_LAPTOP.name());
+        laptop.setStatus(OnboardingStep.FAILED);
+        laptop.setAttempts(1);
+        stepRepository.save(laptop);
+        inventoryRepository.save(new LaptopInventory("LAP-0001"));
+
+        service().startOnboarding(employee);
+
+        Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+        assertEquals("COMPLETED", saved.getOnboardingStatus());
+        assertEquals("ACC-EXISTING", saved.getAccountId());
+        assertEquals("LAP-0001", saved.getLaptopSerialNumber());
+        assertTrue(saved.isWelcomePackIssued());
+
+        Map<String, OnboardingStep> steps = stepRepository.findByEmployeeId(employee.getId()).stream()
+                .collect(Collectors.toMap(OnboardingStep::getStep, Function.identity()));
+        assertEquals(1, steps.get(OnboardingTask.CREATE_ACCOUNT.name()).getAttempts());
+        assertEquals(2, steps.get(OnboardingTask.ISSUE_LAPTOP.name()).getAttempts());
+        assertEquals(1, steps.get(OnboardingTask.ISSUE_STAFF_PASS.name()).getAttempts());
+        steps.values().forEach(step -> assertEquals(OnboardingStep.COMPLETED, step.getStatus()));
+
+        // Only the steps that ran are timed
+        assertEquals(0, stepCount(OnboardingTask.CREATE_ACCOUNT));
+        assertEquals(1, stepCount(OnboardingTask.ISSUE_LAPTOP));
+        assertEquals(1, meterRegistry.get("onboarding.run").tag("outcome", "success").timer().count());
+        assertEquals(0, meterRegistry.get("onboarding.in.flight").gauge().value());
+    }
+
+    @Test
+    void batchWritesStateForEveryEmployee() {
+        Employee first = employeeRepository.save(new Employee("Batch One", "batch1@example.com"));
+        Employee second = employeeRepository.save(new Employee("Batch Two", "batch2@example.com"));
+        inventoryRepository.save(new LaptopInventory("LAP-0101"));
+        inventoryRepository.save(new LaptopInventory("LAP-0102"));
+        OnboardingStateStore stateStore = new OnboardingStateStore(stepRepository, employeeRepository, event -> {},
+                Duration.ofMinutes(10), "test");
+        KeyOrderedExecutor executor = new KeyOrderedExecutor(2);
+        OnboardingDedupWindow dedupWindow = new OnboardingDedupWindow(1_000, Duration.ofMinutes(1));
+        OnboardingBatchService batchService = new OnboardingBatchService(service(), stateStore, executor, dedupWindow);
+
+        Map<Employee, Exception> failures = batchService.startOnboarding(List.of(first, second, first));
+        executor.destroy();
+
+        assertTrue(failures.isEmpty());
+        for (Employee employee : List.of(first, second)) {
+            Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+            assertEquals("COMPLETED", saved.getOnboardingStatus());
+            assertTrue(saved.getLaptopSerialNumber().startsWith("LAP-01"));
+            List<OnboardingStep> steps = stepRepository.findByEmployeeId(employee.getId());
+            assertEquals(OnboardingTask.values().length, steps.size());
+            steps.forEach(step -> {
+                assertEquals(OnboardingStep.COMPLETED, step.getStatus());
+                assertEquals(1, step.getAttempts());
+            });
+        }
+    }
+
+    @Test
+    void batchThatCannotBeWrittenBackReleasesItsClaims() {
+        Employee first = employeeRepository.save(new Employee("Unsaved One", "unsaved1@example.com"));
+        Employee second = employeeRepository.save(new Employee("Unsaved Two", "unsaved2@example.com"));
+        inventoryRepository.save(new LaptopInventory("LAP-0201"));
+        inventoryRepository.save(new LaptopInventory("LAP-0202"));
+        OnboardingStateStore stateStore = new OnboardingStateStore(stepRepository, employeeRepository, event -> {},
+                Duration.ofMinutes(10), "test") {
+            @Override
+            public void finishAll(Collection<Employee> employees, Map<Long, Map<OnboardingTask, OnboardingStep>> states) {
+                throw new IllegalStateException("Connection lost");
+            }
+        };
+        KeyOrderedExecutor executor = new KeyOrderedExecutor(2);
+        OnboardingDedupWindow dedupWindow = new OnboardingDedupWindow(1_000, Duration.ofMinutes(1));
+        OnboardingBatchService batchService = new OnboardingBatchService(service(), stateStore, executor, dedupWindow);
+
+        Map<Employee, Exception> failures = batchService.startOnboarding(List.of(first, second));
+        executor.destroy();
+
+        assertEquals(2, failures.size());
+        for (Employee employee : List.of(first, second)) {
+            Employee saved = employeeRepository.findById(employee.getId()).orElseThrow();
+            // Claimable by the retry at once, and not remembered as completed by this node
+            assertEquals("FAILED", saved.getOnboardingStatus());
+            assertTrue(dedupWindow.tryEnter(employee.getId()));
+        }
+    }
+
+    private OnboardingService service() {
+        OnboardingEngine engine = new GraphOnboardingEngine(new SyncTaskExecutor(), Duration.ofSeconds(5), true);
+        OnboardingStateStore stateStore = new OnboardingStateStore(stepRepository, employeeRepository, event -> {},
+                Duration.ofMinutes(10), "test");
+        LaptopAllocator laptopAllocator = new LaptopAllocator(inventoryRepository, transactionTemplate, "test", 5,
+                Duration.ofHours(1));
+        return new OnboardingService(employeeRepository, engine, stateStore, laptopAllocator, event -> {},
+                new OnboardingMetrics(meterRegistry), new SnowflakeIdGenerator(0), StepSimulation.NONE,
+                new OnboardingDedupWindow(1_000, Duration.ofMinutes(1)));
+    }
+
+    private long stepCount(OnboardingTask task) {
+        return meterRegistry.get("onboarding.step").tag("step", task.name()).tag("outcome", "success").timer().count();
+    }
+}
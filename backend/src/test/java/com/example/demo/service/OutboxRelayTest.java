@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+import com.example.demo.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Employees are saved with an outbox event and the relay publishes them in order, keeping failed events
+@DataJpaTest(showSql = false)
+@Import({EmployeeIngestionService.class, OutboxService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private EmployeeIngestionService ingestionService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Employee> kafkaTemplate = mock(KafkaTemplate.class);
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishesEveryEventInIdOrder() {
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), anyString(), any(Employee.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(ingestionService.create(new Employee("Outbox " + i, "outbox" + i + "@example.com")).getId());
+        }
+        assertEquals(7, outboxEventRepository.count());
+
+        relay(3).drain();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, times(7))
+                .send(eq("new-employees"), isNull(), anyLong(), keys.capture(), any(Employee.class));
+        assertEquals(ids.stream().map(String::valueOf).toList(), keys.getAllValues());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsEventsWhosePublishFailed() {
+        Employee failing = ingestionService.create(new Employee("Failing", "failing@example.com"));
+        ingestionService.create(new Employee("Published", "published@example.com"));
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), anyString(), any(Employee.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), eq(String.valueOf(failing.getId())),
+                any(Employee.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        OutboxRelay relay = relay(10);
+
+        assertEquals(1, relay.relayBatch());
+        assertEquals(failing.getId(), outboxEventRepository.findAll().get(0).getEmployeeId());
+        // The event is kept for the next poll rather than retried while the relay holds the row locks
+        verify(kafkaTemplate, times(1)).send(anyString(), isNull(), anyLong(),
+                eq(String.valueOf(failing.getId())), any(Employee.class));
+
+        assertEquals(1, relay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stopsWaitingForAcknowledgementsAfterTheSendTimeout() {
+        Employee stalled = ingestionService.create(new Employee("Stalled", "stalled@example.com"));
+        ingestionService.create(new Employee("Acknowledged", "acknowledged@example.com"));
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), anyString(), any(Employee.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), eq(String.valueOf(stalled.getId())),
+                any(Employee.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        assertEquals(1, relay(10).relayBatch());
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        assertEquals(stalled.getId(), outboxEventRepository.findAll().get(0).getEmployeeId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void stopsSendingOnceBlockingSendsUseUpTheSendTimeout() {
+        for (int i = 0; i < 3; i++) {
+            ingestionService.create(new Employee("Blocked " + i, "blocked" + i + "@example.com"));
+        }
+        // Each send blocks as the producer does, up to max.block.ms, while the broker is unreachable
+        when(kafkaTemplate.send(anyString(), isNull(), anyLong(), anyString(), any(Employee.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(600);
+                    return CompletableFuture.completedFuture(mock(SendResult.class));
+                });
+
+        assertEquals(2, relay(10, Duration.ofSeconds(1)).relayBatch());
+
+        verify(kafkaTemplate, times(2)).send(anyString(), isNull(), anyLong(), anyString(), any(Employee.class));
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        return relay(batchSize, Duration.ofMillis(200));
+    }
+
+    private OutboxRelay relay(int batchSize, Duration sendTimeout) {
+        EmployeeEventPublisher publisher = new EmployeeEventPublisher(kafkaTemplate);
+        return new OutboxRelay(outboxEventRepository, outboxService, publisher, transactionTemplate, batchSize,
+                sendTimeout);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.config.KafkaConfig;
+import com.example.demo.entity.Employee;
+import com.example.demo.entity.LaptopInventory;
+import com.example.demo.entity.OnboardingStep;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.LaptopInventoryRepository;
+import com.example.demo.repository.OnboardingStepRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Consumption throughput through the application's own Kafka beans on an embedded broker: the
+// new-employees topic is created from the NewTopic bean, employees are published keyed by id through
+// EmployeeEventPublisher and onboarded by KafkaListenerService, first by the record listener (one
+// employee at a time per partition) and then by the key-ordered listener (lanes across keys)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partitioned;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.profiles.include=prod",
+        "onboarding.kafka.partitions=" + PartitionedConsumptionThroughputTest.PARTITIONS,
+        "onboarding.kafka.listener.mode=record",
+        "onboarding.kafka.listener.key-ordered-lanes=8",
+        "onboarding.simulation.failure-rate=0",
+        "onboarding.simulation.step-latency=5ms",
+        "onboarding.analytics.enabled=false"})
+@EmbeddedKafka
+@Tag("load")
+class PartitionedConsumptionThroughputTest {
+    static final int PARTITIONS = 2;
+    private static final int EMPLOYEES = 200;
+    private static final long TIMEOUT_MILLIS = 120_000;
+
+    @Autowired
+    private EmployeeEventPublisher publisher;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OnboardingStepRepository stepRepository;
+
+    @Autowired
+    private LaptopInventoryRepository inventoryRepository;
+
+    @Test
+    void keyOrderedListenerOutrunsTheRecordListenerOnTheSamePartitions() throws Exception {
+        assertEquals(PARTITIONS, kafkaAdmin.describeTopics(KafkaConfig.NEW_EMPLOYEES_TOPIC)
+                .get(KafkaConfig.NEW_EMPLOYEES_TOPIC).partitions().size());
+        inventoryRepository.saveAll(IntStream.range(0, 2 * EMPLOYEES)
+                .mapToObj(i -> new LaptopInventory(String.format("LAP-PART-%04d", i)))
+                .toList());
+
+        MessageListenerContainer record = listenerRegistry.getListenerContainer("new-employees-record");
+        MessageListenerContainer keyOrdered = listenerRegistry.getListenerContainer("new-employees-key-ordered");
+        ContainerTestUtils.waitForAssignment(record, PARTITIONS);
+        double recordRate = consume(employees("record"));
+
+        // Same consumer group, so the key-ordered listener picks up where the record listener stopped
+        record.stop();
+        keyOrdered.start();
+        ContainerTestUtils.waitForAssignment(keyOrdered, PARTITIONS);
+        double keyOrderedRate = consume(employees("keyed"));
+
+        System.out.printf("%d partitions: record listener %.0f employees/sec, key-ordered listener with 8 lanes "
+                + "%.0f employees/sec (%.1fx)%n", PARTITIONS, recordRate, keyOrderedRate, keyOrderedRate / recordRate);
+        assertTrue(keyOrderedRate > recordRate);
+    }
+
+    // Publishes the employees and waits until all of them are onboarded, each step run exactly once
+    private double consume(List<Employee> employees) throws Exception {
+        long completedBefore = employeeRepository.countByOnboardingStatus("COMPLETED");
+        long start = System.nanoTime();
+        CompletableFuture<?>[] sends = employees.stream()
+                .map(publisher::publish)
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).get(30, TimeUnit.SECONDS);
+        long completed;
+        while ((completed = employeeRepository.countByOnboardingStatus("COMPLETED") - completedBefore) < employees.size()
+                && System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS)) {
+            Thread.sleep(20);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertEquals(employees.size(), completed);
+        for (Employee employee : employees) {
+            List<OnboardingStep> steps = stepRepository.findByEmployeeId(employee.getId());
+            assertEquals(OnboardingTask.values().length, steps.size());
+            steps.forEach(step -> assertEquals(1, step.getAttempts(), step.getStep()));
+        }
+        return employees.size() / seconds;
+    }
+
+    private List<Employee> employees(String prefix) {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(prefix + " " + i, prefix + i + "@partitioned.example.com"));
+        }
+        return employeeRepository.saveAll(employees);
+    }
+}
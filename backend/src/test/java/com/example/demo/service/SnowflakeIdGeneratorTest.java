@@ -0,0 +1,90 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// IDs stay unique under contention, across nodes and across restarts, and sort in the order they were generated
+class SnowflakeIdGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void uniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    ids.add(generator.nextId("ACC-"));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+    }
+
+    @Test
+    void sortsInGenerationOrderWithPrefix() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        String previous = generator.nextId("PASS-");
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextId("PASS-");
+            assertTrue(next.startsWith("PASS-"));
+            assertEquals("PASS-".length() + 13, next.length());
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nodesNeverShareAnId() {
+        long a = new SnowflakeIdGenerator(1).nextLong();
+        long b = new SnowflakeIdGenerator(2).nextLong();
+
+        assertNotEquals(a, b);
+        assertEquals(1, (a >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertEquals(2, (b >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID);
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+    }
+
+    @Test
+    void resumesAfterTheGivenTimeAndStopsWhenTheLeaseEnds() {
+        long resumeAfter = System.currentTimeMillis() + 60_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, resumeAfter);
+
+        long id = generator.nextLong();
+        assertEquals(resumeAfter + 1,
+                (id >>> (SnowflakeIdGenerator.NODE_BITS + SnowflakeIdGenerator.SEQUENCE_BITS)) + SnowflakeIdGenerator.EPOCH_MILLIS);
+
+        generator.validUntil(resumeAfter + 2);
+        generator.nextLong();
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i <= 4096; i++) {
+                generator.nextLong();
+            }
+        });
+    }
+}
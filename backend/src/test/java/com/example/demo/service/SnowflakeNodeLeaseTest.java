@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.SnowflakeNodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Running nodes never share a node id, and whoever leases one next resumes after its last lease
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SnowflakeNodeLeaseTest {
+
+    @Autowired
+    private SnowflakeNodeRepository nodeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        nodeRepository.deleteAll();
+    }
+
+    @Test
+    void nodesLeaseDistinctIdsAndTakeOverExpiredOnes() throws InterruptedException {
+        SnowflakeNodeLease first = lease("", "node-a", Duration.ofMinutes(1));
+        SnowflakeNodeLease gone = lease("", "node-b", Duration.ofMillis(300));
+        assertNotEquals(first.generator().getNodeId(), gone.generator().getNodeId());
+        gone.generator().nextLong();
+        // node-b dies without renewing: its node id goes to the next node once the lease has run out
+        gone.destroy();
+        long leasedUntil = leasedUntil(gone.generator().getNodeId());
+        Thread.sleep(500);
+
+        SnowflakeNodeLease next = lease("", "node-c", Duration.ofMinutes(1));
+
+        assertEquals(gone.generator().getNodeId(), next.generator().getNodeId());
+        assertTrue(millis(next.generator().nextLong()) > leasedUntil);
+        first.destroy();
+        next.destroy();
+    }
+
+    @Test
+    void configuredNodeIdIsOnlyLeasedByOneNode() {
+        SnowflakeNodeLease running = lease("5", "node-a", Duration.ofMinutes(1));
+        assertEquals(5, running.generator().getNodeId());
+
+        assertThrows(IllegalStateException.class, () -> lease("5", "node-b", Duration.ofMinutes(1)));
+
+        // node-a restarted: it leases the id again and resumes after the lease it held, not from its clock
+        running.destroy();
+        long leasedUntil = leasedUntil(5);
+        SnowflakeNodeLease restarted = lease("5", "node-a", Duration.ofMinutes(1));
+        assertTrue(millis(restarted.generator().nextLong()) > leasedUntil);
+        restarted.destroy();
+    }
+
+    private SnowflakeNodeLease lease(String nodeId, String owner, Duration leaseTtl) {
+        return new SnowflakeNodeLease(nodeRepository, transactionTemplate, nodeId, owner, leaseTtl);
+    }
+
+    private long leasedUntil(long nodeId) {
+        return nodeRepository.findById((int) nodeId).orElseThrow().getLeasedUntil()
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long millis(long id) {
+        return (id >>> (SnowflakeIdGenerator.NODE_BITS + SnowflakeIdGenerator.SEQUENCE_BITS))
+                + SnowflakeIdGenerator.EPOCH_MILLIS;
+    }
+}
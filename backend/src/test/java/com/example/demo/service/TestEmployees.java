@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Employee;
+
+import java.util.Locale;
+
+// Detached employees for tests that run the onboarding code without a database
+final class TestEmployees {
+
+    private TestEmployees() {
+    }
+
+    static Employee employee(long id, String name) {
+        Employee employee = new Employee(name, name.toLowerCase(Locale.ROOT) + "@example.com");
+        employee.setId(id);
+        return employee;
+    }
+}
@@ -59,6 +59,19 @@ const OnboardingDashboard: React.FC<OnboardingDashboardProps> = ({ employee: ini
     }
   }, [employee]);
 
+  // The server pushes onboarding status changes, so details are reloaded only when they change
+  useEffect(() => {
+    if (!employee?.id) {
+      return;
+    }
+    const source = new EventSource(`http://localhost:8080/employees/onboarding/stream?employeeId=${employee.id}`);
+    source.addEventListener('status', () => {
+      fetchOnboardingDetails();
+      onUpdate();
+    });
+    return () => source.close();
+  }, [employee?.id]);
+
   useEffect(() => {
     setEmployee(initialEmployee);
   }, [initialEmployee]);
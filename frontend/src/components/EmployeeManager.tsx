@@ -24,6 +24,21 @@ const api: AxiosInstance = axios.create({
   }
 });
 
+// GET /employees returns one page at a time; the id to continue after comes back in X-Next-Cursor
+const PAGE_SIZE = 1000;
+
+const fetchAllEmployees = async (): Promise<Employee[]> => {
+  const all: Employee[] = [];
+  let after: string | undefined;
+  do {
+    const response = await api.get<Employee[]>('', { params: { limit: PAGE_SIZE, after } });
+    all.push(...response.data);
+    const next = response.headers['x-next-cursor'];
+    after = next ? String(next) : undefined;
+  } while (after);
+  return all;
+};
+
 const EmployeeManager: React.FC = () => {
   const [name, setName] = useState<string>('');
   const [email, setEmail] = useState<string>('');
@@ -59,12 +74,7 @@ const EmployeeManager: React.FC = () => {
   };
   const fetchEmployees = async (): Promise<void> => {
     try {
-      const response = await fetch(API_URL);
-      if (!response.ok) {
-        throw new Error('Failed to fetch employees');
-      }
-      const data = await response.json();
-      setEmployees(data);
+      setEmployees(await fetchAllEmployees());
     } catch (error: any) {
       console.error('Error details:', error);
       setMessage(`Error fetching employees: ${error.message}`);
@@ -80,8 +90,8 @@ const EmployeeManager: React.FC = () => {
 
   const searchEmployees = async (): Promise<void> => {
     try {
-      const response = await api.get('');
-      const filtered = response.data.filter(
+      const all = await fetchAllEmployees();
+      const filtered = all.filter(
         (employee: Employee) =>
           employee.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
           employee.email.toLowerCase().includes(searchTerm.toLowerCase())